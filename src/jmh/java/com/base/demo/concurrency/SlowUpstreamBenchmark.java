@@ -0,0 +1,120 @@
+package com.base.demo.concurrency;
+
+import com.base.demo.cache.NoOpCustomerCache;
+import com.base.demo.model.DTO.customer.BatchGetResponse;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.base.demo.model.entity.Customer;
+import com.base.demo.repository.InMemoryCustomerRepository;
+import com.base.demo.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * How long a burst of {@code requests} concurrent {@code POST /customers/batch-get} calls takes when the data store
+ * answers in {@code upstreamLatencyMillis}: {@link CustomerService#getAll} runs over an
+ * {@link InMemoryCustomerRepository} whose {@code getAll} blocks for that long, like the Firestore one does. Requests
+ * are served by Tomcat's default pool of 200 platform threads versus one virtual thread per request (what
+ * {@code spring.threads.virtual.enabled} does).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SlowUpstreamBenchmark {
+
+  private static final int TOMCAT_MAX_THREADS = 200;
+  private static final int CUSTOMERS = 100;
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param({"2000"})
+  public int requests;
+
+  @Param({"20"})
+  public int upstreamLatencyMillis;
+
+  private ExecutorService executor;
+  private CustomerService service;
+  private final List<String> ids = new ArrayList<>(CUSTOMERS);
+
+  @Setup
+  public void setUp() {
+    SlowRepository repo = new SlowRepository(upstreamLatencyMillis);
+    for (int i = 0; i < CUSTOMERS; i++) {
+      ids.add(repo.saveAsync(new Customer(null, "Customer " + i, "c" + i + "@example.com", null)).join());
+    }
+    // sin caché: cada petición llega al repositorio, como un fallo de caché
+    service = new CustomerService(repo, new NoOpCustomerCache(new SimpleMeterRegistry()), Optional.empty(),
+                                  new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+    ReflectionTestUtils.setField(service, "batchGetMaxIds", 500);
+
+    executor = threads.equals("virtual")
+        ? Executors.newVirtualThreadPerTaskExecutor()
+        : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public int burst() throws Exception {
+    List<Future<BatchGetResponse>> futures = new ArrayList<>(requests);
+    for (int i = 0; i < requests; i++) {
+      List<String> batch = List.of(ids.get(i % CUSTOMERS), ids.get((i + 1) % CUSTOMERS));
+      futures.add(executor.submit(() -> service.getAll(batch)));
+    }
+    int found = 0;
+    for (Future<BatchGetResponse> f : futures) {
+      found += f.get().found().size();
+    }
+    return found;
+  }
+
+  /** The in-memory repository with the blocking round trip of Firestore's {@code getAll} in front. */
+  private static final class SlowRepository extends InMemoryCustomerRepository {
+
+    private final long latencyMillis;
+
+    SlowRepository(long latencyMillis) {
+      this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Map<String, Optional<CustomerResponse>> findAllById(Collection<String> ids) {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return super.findAllById(ids);
+    }
+  }
+}
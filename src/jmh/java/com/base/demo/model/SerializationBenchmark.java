@@ -0,0 +1,98 @@
+package com.base.demo.model;
+
+import com.base.demo.config.AppConfig;
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization of the {@link CustomApiResponse} envelopes the customer endpoints return.
+ * <p>
+ * {@code stock*} reproduces the default converter: a plain {@link ObjectMapper} with only the Java time module and a
+ * fresh untyped writer per call. {@code cached*} is what the application does now: the {@link AppConfig} mapper
+ * (Blackbird included) with one {@link ObjectWriter} per envelope type, as kept by
+ * {@link com.base.demo.config.EnvelopeJacksonHttpMessageConverter}. Both write to a reused stream, like a response
+ * body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"20", "500", "5000"})
+  public int items;
+
+  private ObjectMapper stock;
+  private ObjectWriter singleWriter;
+  private ObjectWriter pageWriter;
+  private CustomApiResponse<CustomerResponse> single;
+  private CustomApiResponse<CustomerPage> page;
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+  @Setup
+  public void setUp() {
+    stock = new ObjectMapper();
+    stock.registerModule(new JavaTimeModule());
+    ObjectMapper mapper = new AppConfig().objectMapper();
+    TypeFactory types = mapper.getTypeFactory();
+    singleWriter = mapper.writerFor(types.constructParametricType(CustomApiResponse.class, CustomerResponse.class));
+    pageWriter = mapper.writerFor(types.constructParametricType(CustomApiResponse.class, CustomerPage.class));
+
+    Instant now = Instant.now();
+    List<CustomerResponse> customers = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      customers.add(new CustomerResponse("c-" + i, "Customer " + i, "customer" + i + "@example.com",
+                                         now.minusSeconds(i), now));
+    }
+    single = new CustomApiResponse<>("Customer fetched successfully", customers.get(0));
+    page = new CustomApiResponse<>("ok", new CustomerPage(customers, "next-token"));
+  }
+
+  @Benchmark
+  public int stockSingleCustomer() throws Exception {
+    return write(stock.writer(), single);
+  }
+
+  @Benchmark
+  public int cachedSingleCustomer() throws Exception {
+    return write(singleWriter, single);
+  }
+
+  @Benchmark
+  public int stockCustomerPage() throws Exception {
+    return write(stock.writer(), page);
+  }
+
+  @Benchmark
+  public int cachedCustomerPage() throws Exception {
+    return write(pageWriter, page);
+  }
+
+  private int write(ObjectWriter writer, Object value) throws Exception {
+    out.reset();
+    writer.writeValue(out, value);
+    return out.size();
+  }
+}
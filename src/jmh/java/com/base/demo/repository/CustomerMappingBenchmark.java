@@ -0,0 +1,55 @@
+package com.base.demo.repository;
+
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BenchSnapshots;
+import com.google.cloud.firestore.DocumentSnapshot;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Snapshot to {@link CustomerResponse} mapping: the projected field-by-field mapping in {@link CustomerDocuments}
+ * against going through {@link DocumentSnapshot#getData()}, which materializes every field into a map first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+  private DocumentSnapshot snapshot;
+
+  @Setup
+  public void setUp() {
+    snapshot = BenchSnapshots.customer("c-1", "Ada Lovelace", "ada@example.com", Instant.now());
+  }
+
+  @Benchmark
+  public CustomerResponse fieldByField() {
+    return CustomerDocuments.toResponse(snapshot);
+  }
+
+  @Benchmark
+  public CustomerResponse viaGetData() {
+    Map<String, Object> data = snapshot.getData();
+    Timestamp ts = (Timestamp) data.get("createdAt");
+    Timestamp updated = snapshot.getUpdateTime();
+    return new CustomerResponse(snapshot.getId(), (String) data.get("name"), (String) data.get("email"),
+                                ts == null ? null : Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos()),
+                                updated == null ? null : Instant.ofEpochSecond(updated.getSeconds(),
+                                                                               updated.getNanos()));
+  }
+}
@@ -0,0 +1,60 @@
+package com.base.demo.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * A request through {@link BearerTokenAuthFilter} with mocked servlet objects: header parsing, token verification
+ * (cached), security context population and the rest of the chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+  private TestTokens tokens;
+  private BearerTokenAuthFilter filter;
+  private String authorization;
+
+  @Setup
+  public void setUp() throws Exception {
+    tokens = new TestTokens();
+    filter = new BearerTokenAuthFilter(tokens.verifier());
+    authorization = "Bearer " + tokens.sign();
+  }
+
+  @TearDown
+  public void tearDown() {
+    tokens.close();
+  }
+
+  @Benchmark
+  public int authenticatedRequest() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/c-1");
+    request.addHeader("Authorization", authorization);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    try {
+      filter.doFilter(request, response, new MockFilterChain());
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+    return response.getStatus();
+  }
+}
@@ -0,0 +1,68 @@
+package com.base.demo.security;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs Google-shaped ID tokens with a locally generated RSA key and builds a {@link GisIdTokenVerifier} that
+ * trusts it, so verification can be measured without any network access.
+ */
+final class TestTokens {
+
+  static final String CLIENT_ID = "bench-client.apps.googleusercontent.com";
+  static final String ISSUER = "https://accounts.google.com";
+  private static final String KEY_ID = "bench-key";
+
+  private final KeyPair keyPair;
+  private final SigningKeyManager keys;
+
+  TestTokens() throws GeneralSecurityException {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    this.keyPair = generator.generateKeyPair();
+    this.keys = new SigningKeyManager(
+        () -> new SigningKeys(Map.of(KEY_ID, keyPair.getPublic()), Instant.now().plus(Duration.ofHours(6))),
+        Duration.ofMinutes(10), Duration.ofSeconds(30));
+    this.keys.refresh();
+  }
+
+  GisIdTokenVerifier verifier() {
+    return new GisIdTokenVerifier(keys, new SimpleMeterRegistry(), CLIENT_ID, List.of(ISSUER), 10_000,
+                                  Duration.ofSeconds(30));
+  }
+
+  /**
+   * Signs a fresh token for a random subject, valid for one hour.
+   */
+  String sign() throws GeneralSecurityException {
+    long now = Instant.now().getEpochSecond();
+    JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId(KEY_ID);
+    JsonWebToken.Payload payload = new JsonWebToken.Payload().setIssuer(ISSUER)
+                                                             .setAudience(CLIENT_ID)
+                                                             .setSubject(UUID.randomUUID().toString())
+                                                             .setIssuedAtTimeSeconds(now)
+                                                             .setExpirationTimeSeconds(now + 3600);
+    payload.set("email", "bench@example.com");
+    try {
+      return JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), GsonFactory.getDefaultInstance(), header,
+                                                 payload);
+    } catch (IOException e) {
+      throw new GeneralSecurityException(e);
+    }
+  }
+
+  void close() {
+    keys.stop();
+  }
+}
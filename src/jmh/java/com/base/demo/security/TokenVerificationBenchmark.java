@@ -0,0 +1,69 @@
+package com.base.demo.security;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link GisIdTokenVerifier#verify(String)} for a token seen before (served from the token cache) and for a token
+ * seen for the first time (parse, claim checks and RSA signature check).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+  private TestTokens tokens;
+  private GisIdTokenVerifier verifier;
+  private String cachedToken;
+
+  @Setup
+  public void setUp() throws Exception {
+    tokens = new TestTokens();
+    verifier = tokens.verifier();
+    cachedToken = tokens.sign();
+    verifier.verify(cachedToken);
+  }
+
+  @TearDown
+  public void tearDown() {
+    tokens.close();
+  }
+
+  @Benchmark
+  public Optional<GisIdTokenVerifier.UserInfo> cachedToken() {
+    return verifier.verify(cachedToken);
+  }
+
+  @Benchmark
+  public Optional<GisIdTokenVerifier.UserInfo> newToken(FreshToken fresh) {
+    return verifier.verify(fresh.token);
+  }
+
+  /**
+   * A token signed right before each invocation, so it always misses the cache. Signing is not measured.
+   */
+  @State(Scope.Thread)
+  public static class FreshToken {
+    String token;
+
+    @Setup(Level.Invocation)
+    public void sign(TokenVerificationBenchmark bench) throws Exception {
+      token = bench.tokens.sign();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.google.cloud.firestore;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.Timestamp;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.Value;
+import java.time.Instant;
+
+/**
+ * Builds real {@link DocumentSnapshot}s offline for benchmarks. Lives in the client's package because snapshots can
+ * only be created from wire documents through package-private factories; no RPC is ever made.
+ */
+public final class BenchSnapshots {
+
+  private static final String PROJECT = "bench";
+  private static final FirestoreImpl FIRESTORE =
+      (FirestoreImpl) FirestoreOptions.newBuilder()
+                                      .setProjectId(PROJECT)
+                                      .setCredentials(NoCredentials.getInstance())
+                                      .build()
+                                      .getService();
+
+  private BenchSnapshots() {
+  }
+
+  /**
+   * Returns a snapshot of {@code customers/{id}} as Firestore would deliver it.
+   */
+  public static DocumentSnapshot customer(String id, String name, String email, Instant createdAt) {
+    com.google.protobuf.Timestamp created = com.google.protobuf.Timestamp.newBuilder()
+                                                                        .setSeconds(createdAt.getEpochSecond())
+                                                                        .setNanos(createdAt.getNano())
+                                                                        .build();
+    Document doc = Document.newBuilder()
+                           .setName("projects/%s/databases/(default)/documents/customers/%s".formatted(PROJECT, id))
+                           .putFields("name", Value.newBuilder().setStringValue(name).build())
+                           .putFields("email", Value.newBuilder().setStringValue(email).build())
+                           .putFields("createdAt", Value.newBuilder().setTimestampValue(created).build())
+                           .setCreateTime(created)
+                           .setUpdateTime(created)
+                           .build();
+    return DocumentSnapshot.fromDocument(FIRESTORE, Timestamp.now(), doc);
+  }
+}
@@ -0,0 +1,65 @@
+package com.base.demo.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-endpoint latencies during a run and summarizes them. Every sample is kept (a laptop run produces at
+ * most a few hundred thousand), so percentiles are exact.
+ */
+final class LatencyRecorder {
+
+  private final ConcurrentMap<String, Queue<Long>> samples = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+  void record(String endpoint, long nanos, boolean ok) {
+    samples.computeIfAbsent(endpoint, e -> new ConcurrentLinkedQueue<>()).add(nanos);
+    if (!ok) {
+      errors.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+    }
+  }
+
+  /**
+   * Summarizes the run, one entry per endpoint in name order.
+   *
+   * @param elapsedNanos wall-clock length of the measured phase, used for throughput
+   */
+  List<EndpointStats> summarize(long elapsedNanos) {
+    Map<String, Queue<Long>> sorted = new LinkedHashMap<>();
+    samples.keySet().stream().sorted().forEach(k -> sorted.put(k, samples.get(k)));
+
+    List<EndpointStats> stats = new ArrayList<>(sorted.size());
+    double seconds = elapsedNanos / 1e9;
+    for (var entry : sorted.entrySet()) {
+      long[] values = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+      Arrays.sort(values);
+      LongAdder failed = errors.get(entry.getKey());
+      stats.add(new EndpointStats(entry.getKey(), values.length, failed == null ? 0 : failed.sum(),
+                                  values.length / seconds,
+                                  millis(percentile(values, 50)), millis(percentile(values, 95)),
+                                  millis(percentile(values, 99)), millis(values[values.length - 1])));
+    }
+    return stats;
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  record EndpointStats(String endpoint, long requests, long errors, double throughputPerSecond,
+                       double p50Millis, double p95Millis, double p99Millis, double maxMillis) {}
+}
@@ -0,0 +1,245 @@
+package com.base.demo.loadtest;
+
+import com.base.demo.DemoApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.cloud.storage.BucketInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Offline end-to-end load test.
+ * <p>
+ * Boots the application on a random port against the Firestore emulator and fake-gcs-server (see
+ * {@code src/loadtest/docker-compose.yml}), seeds some customers and files, then drives a weighted mix of
+ * create/get/list/upload/download requests from {@code loadtest.concurrency} virtual-thread clients for
+ * {@code loadtest.duration}. Prints p50/p95/p99/max latency and throughput per endpoint and writes them to
+ * {@code target/loadtest-report.json}.
+ * <p>
+ * Settings (system properties): {@code loadtest.duration} (default 60s), {@code loadtest.warmup} (10s),
+ * {@code loadtest.concurrency} (64), {@code loadtest.upload-size} in bytes (65536),
+ * {@code loadtest.firestore-emulator} (localhost:8081), {@code loadtest.gcs-host} (http://localhost:4443).
+ */
+public final class LoadTest {
+
+  private static final String BUCKET = "loadtest";
+
+  /** Peso de cada operación en la mezcla de tráfico. */
+  private static final List<Map.Entry<Operation, Integer>> MIX = List.of(
+      Map.entry(Operation.CREATE_CUSTOMER, 20),
+      Map.entry(Operation.GET_CUSTOMER, 40),
+      Map.entry(Operation.LIST_CUSTOMERS, 15),
+      Map.entry(Operation.UPLOAD_FILE, 10),
+      Map.entry(Operation.DOWNLOAD_FILE, 15));
+  private static final int TOTAL_WEIGHT = MIX.stream().mapToInt(Map.Entry::getValue).sum();
+
+  private final HttpClient http = HttpClient.newBuilder()
+                                            .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                            .connectTimeout(Duration.ofSeconds(5))
+                                            .build();
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<String> customerIds = new CopyOnWriteArrayList<>();
+  private final List<String> objectNames = new CopyOnWriteArrayList<>();
+  private final String baseUrl;
+  private final byte[] uploadPayload;
+
+  private LoadTest(String baseUrl, int uploadSize) {
+    this.baseUrl = baseUrl;
+    this.uploadPayload = new byte[uploadSize];
+    ThreadLocalRandom.current().nextBytes(uploadPayload);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "60s").toUpperCase());
+    Duration warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s").toUpperCase());
+    int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+    int uploadSize = Integer.getInteger("loadtest.upload-size", 64 * 1024);
+
+    try (ConfigurableApplicationContext app = start()) {
+      createBucket(app.getBean(Storage.class));
+      String port = app.getEnvironment().getProperty("local.server.port");
+      LoadTest test = new LoadTest("http://localhost:" + port, uploadSize);
+
+      test.seed(100, 10);
+      test.run(warmup, concurrency, new LatencyRecorder()); // resultados descartados: JIT, pools y cachés en caliente
+      LatencyRecorder recorder = new LatencyRecorder();
+      long elapsed = test.run(duration, concurrency, recorder);
+      test.report(recorder.summarize(elapsed), duration, concurrency);
+    }
+  }
+
+  private static ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(DemoApplication.class)
+        .profiles("dev") // sin autenticación
+        .properties(
+            "server.port=0",
+            "app.gcp.project-id=" + BUCKET,
+            "app.gcp.firestore.emulator-host=" + System.getProperty("loadtest.firestore-emulator", "localhost:8081"),
+            "app.gcp.storage.host=" + System.getProperty("loadtest.gcs-host", "http://localhost:4443"),
+            "app.storage.bucket=" + BUCKET)
+        .run();
+  }
+
+  private static void createBucket(Storage storage) {
+    try {
+      storage.create(BucketInfo.of(BUCKET));
+    } catch (StorageException e) {
+      if (e.getCode() != 409) throw e; // ya existe de una ejecución anterior
+    }
+  }
+
+  private void seed(int customers, int files) throws Exception {
+    for (int i = 0; i < customers; i++) {
+      execute(Operation.CREATE_CUSTOMER);
+    }
+    for (int i = 0; i < files; i++) {
+      execute(Operation.UPLOAD_FILE);
+    }
+  }
+
+  /**
+   * Runs the traffic mix for {@code length} and returns the measured wall-clock time in nanoseconds.
+   */
+  private long run(Duration length, int concurrency, LatencyRecorder recorder) throws InterruptedException {
+    long start = System.nanoTime();
+    long deadline = start + length.toNanos();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < concurrency; i++) {
+        clients.submit(() -> {
+          while (System.nanoTime() < deadline) {
+            Operation op = pick();
+            long t0 = System.nanoTime();
+            boolean ok;
+            try {
+              ok = execute(op);
+            } catch (Exception e) {
+              ok = false;
+            }
+            recorder.record(op.endpoint, System.nanoTime() - t0, ok);
+          }
+          return null;
+        });
+      }
+      clients.shutdown();
+      clients.awaitTermination(length.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static Operation pick() {
+    int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+    for (var entry : MIX) {
+      roll -= entry.getValue();
+      if (roll < 0) return entry.getKey();
+    }
+    return Operation.GET_CUSTOMER;
+  }
+
+  private boolean execute(Operation op) throws IOException, InterruptedException {
+    return switch (op) {
+      case CREATE_CUSTOMER -> {
+        String n = UUID.randomUUID().toString();
+        String body = mapper.writeValueAsString(Map.of("name", "Load " + n, "email", n + "@loadtest.local"));
+        HttpResponse<byte[]> res = send(HttpRequest.newBuilder(uri("/api/customers"))
+                                                   .header("Content-Type", "application/json")
+                                                   .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (res.statusCode() != 200) yield false;
+        customerIds.add(mapper.readTree(res.body()).path("data").asText());
+        yield true;
+      }
+      case GET_CUSTOMER -> {
+        if (customerIds.isEmpty()) yield execute(Operation.CREATE_CUSTOMER);
+        String id = customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size()));
+        yield send(HttpRequest.newBuilder(uri("/api/customers/" + id)).GET()).statusCode() == 200;
+      }
+      case LIST_CUSTOMERS -> send(HttpRequest.newBuilder(uri("/api/customers?size=20")).GET()).statusCode() == 200;
+      case UPLOAD_FILE -> {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        HttpResponse<byte[]> res = send(HttpRequest.newBuilder(uri("/api/files"))
+                                                   .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                                                   .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary))));
+        if (res.statusCode() != 200) yield false;
+        JsonNode data = mapper.readTree(res.body()).path("data");
+        objectNames.add(data.path("object").asText());
+        yield true;
+      }
+      case DOWNLOAD_FILE -> {
+        if (objectNames.isEmpty()) yield execute(Operation.UPLOAD_FILE);
+        String object = objectNames.get(ThreadLocalRandom.current().nextInt(objectNames.size()));
+        yield send(HttpRequest.newBuilder(uri("/api/files/" + object)).GET()).statusCode() == 200;
+      }
+    };
+  }
+
+  private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+    return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  private URI uri(String path) {
+    return URI.create(baseUrl + path);
+  }
+
+  private byte[] multipart(String boundary) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(uploadPayload.length + 256);
+    out.write(("--" + boundary + "\r\n"
+        + "Content-Disposition: form-data; name=\"file\"; filename=\"load.bin\"\r\n"
+        + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+    out.write(uploadPayload);
+    out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    return out.toByteArray();
+  }
+
+  private void report(List<LatencyRecorder.EndpointStats> stats, Duration duration, int concurrency)
+      throws IOException {
+    System.out.printf("%nLoad test: %s, %d concurrent clients%n", duration, concurrency);
+    System.out.printf("%-28s %9s %7s %9s %9s %9s %9s %9s%n",
+                      "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    for (var s : stats) {
+      System.out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", s.endpoint(), s.requests(), s.errors(),
+                        s.throughputPerSecond(), s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis());
+    }
+
+    Path file = Path.of("target", "loadtest-report.json");
+    Files.createDirectories(file.getParent());
+    Map<String, Object> json = Map.of("duration", duration.toString(), "concurrency", concurrency,
+                                      "endpoints", new ArrayList<>(stats));
+    mapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    System.out.println("Report written to " + file.toAbsolutePath());
+  }
+
+  private enum Operation {
+    CREATE_CUSTOMER("POST /api/customers"),
+    GET_CUSTOMER("GET /api/customers/{id}"),
+    LIST_CUSTOMERS("GET /api/customers"),
+    UPLOAD_FILE("POST /api/files"),
+    DOWNLOAD_FILE("GET /api/files/{object}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+      this.endpoint = endpoint;
+    }
+  }
+}
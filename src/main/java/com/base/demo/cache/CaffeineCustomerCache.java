@@ -0,0 +1,142 @@
+package com.base.demo.cache;
+
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.base.demo.exception.DataStoreException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process {@link CustomerCache} backed by Caffeine.
+ * <p>
+ * Entries are evicted by size ({@code app.cache.customers.maximum-size}) and by time: found customers live for
+ * {@code app.cache.customers.ttl}, ids that were not found live for the (usually shorter)
+ * {@code app.cache.customers.negative-ttl}. Hit, miss and eviction counters are published to Micrometer under the
+ * {@code cache.*} meters with tag {@code cache=customers}; lookups that join a load already in flight for the same id
+ * are counted in {@code singleflight.coalesced{name=customers}}, like with {@link NoOpCustomerCache}.
+ * <p>
+ * Lookups only install the loader's future in the cache; nobody waits inside the cache's internal map lock. Running
+ * a blocking Firestore call inside that lock (as a synchronous {@code Cache.get(key, loader)} does) would pin the
+ * caller's carrier thread when requests are served on virtual threads. Bulk loads run on the calling (request)
+ * thread, after the pending entries are installed and outside any lock, so they keep the request's timings and
+ * tracing context.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.customers.type", havingValue = "caffeine", matchIfMissing = true)
+public class CaffeineCustomerCache implements CustomerCache {
+
+  private final AsyncCache<String, Optional<CustomerResponse>> cache;
+  private final Counter coalesced;
+
+  @Autowired
+  public CaffeineCustomerCache(MeterRegistry registry,
+                               @Value("${app.cache.customers.maximum-size:10000}") long maximumSize,
+                               @Value("${app.cache.customers.ttl:5m}") Duration ttl,
+                               @Value("${app.cache.customers.negative-ttl:30s}") Duration negativeTtl) {
+    this(registry, maximumSize, ttl, negativeTtl, Ticker.systemTicker());
+  }
+
+  CaffeineCustomerCache(MeterRegistry registry, long maximumSize, Duration ttl, Duration negativeTtl, Ticker ticker) {
+    ThreadFactory virtual = Thread.ofVirtual().name("customer-cache").factory();
+    Executor maintenance = task -> virtual.newThread(task).start(); // sin pool que cerrar: no sobrevive al contexto
+    this.cache = Caffeine.newBuilder()
+                         .ticker(ticker)
+                         .maximumSize(maximumSize)
+                         .expireAfter(new PositiveNegativeExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                         .executor(maintenance)
+                         .recordStats()
+                         .buildAsync();
+    CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "customers");
+    this.coalesced = Counter.builder("singleflight.coalesced")
+                            .description("Calls served by joining an identical call already in flight")
+                            .tag("name", "customers")
+                            .register(registry);
+  }
+
+  @Override
+  public CompletableFuture<Optional<CustomerResponse>> getAsync(
+      String id, Function<String, CompletableFuture<Optional<CustomerResponse>>> loader) {
+    boolean[] started = {false};
+    CompletableFuture<Optional<CustomerResponse>> entry = cache.get(id, (key, executor) -> {
+      started[0] = true;
+      return loader.apply(key);
+    });
+    if (!started[0] && !entry.isDone()) {
+      coalesced.increment(); // se une a la lectura de otro llamante aún en curso
+    }
+    // copia: un timeout o cancelación de un llamante no debe fallar la entrada compartida del resto
+    return entry.copy();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // Set<? extends String> es siempre Set<String>
+  public Map<String, Optional<CustomerResponse>> getAll(
+      Collection<String> ids, Function<Set<String>, Map<String, Optional<CustomerResponse>>> loader) {
+    return join(cache.getAll(ids, (missing, executor) -> {
+      try {
+        return CompletableFuture.completedFuture(loader.apply((Set<String>) missing));
+      } catch (RuntimeException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }));
+  }
+
+  @Override
+  public void invalidate(String id) {
+    cache.synchronous().invalidate(id);
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new DataStoreException("Customer lookup failed", e.getCause());
+    }
+  }
+
+  /**
+   * Expires found customers after {@code ttlNanos} and negative entries after {@code negativeTtlNanos}, counted from
+   * the moment they were written.
+   */
+  private record PositiveNegativeExpiry(long ttlNanos, long negativeTtlNanos)
+      implements Expiry<String, Optional<CustomerResponse>> {
+
+    @Override
+    public long expireAfterCreate(String key, Optional<CustomerResponse> value, long currentTime) {
+      return value.isPresent() ? ttlNanos : negativeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Optional<CustomerResponse> value, long currentTime,
+                                  long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Optional<CustomerResponse> value, long currentTime,
+                                long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
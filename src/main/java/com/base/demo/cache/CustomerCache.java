@@ -0,0 +1,50 @@
+package com.base.demo.cache;
+
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of customer lookups.
+ * <p>
+ * Values are {@link Optional}s so that ids known not to exist can be cached as well (negative caching): an empty
+ * Optional means "looked up and not found".
+ */
+public interface CustomerCache {
+
+  /**
+   * Returns the cached value for {@code id}, invoking {@code loader} on a miss and caching its result.
+   * Failed loads are propagated through the returned future and nothing is cached. Waiting on the returned future
+   * never happens inside the cache's own locks.
+   *
+   * @param id     the customer id
+   * @param loader loads the customer from the data store; completes with an empty Optional when it does not exist
+   *
+   * @return a future completed with the customer, or an empty Optional when it is known not to exist
+   */
+  CompletableFuture<Optional<CustomerResponse>> getAsync(
+      String id, Function<String, CompletableFuture<Optional<CustomerResponse>>> loader);
+
+  /**
+   * Returns the cached values for {@code ids}, loading every miss with a single call to {@code loader}.
+   * The loader must return an entry (possibly an empty Optional) for each id it is given.
+   *
+   * @param ids    the customer ids, without duplicates
+   * @param loader loads the given ids from the data store in one round trip
+   *
+   * @return one entry per requested id
+   */
+  Map<String, Optional<CustomerResponse>> getAll(
+      Collection<String> ids, Function<Set<String>, Map<String, Optional<CustomerResponse>>> loader);
+
+  /**
+   * Removes any cached value (positive or negative) for {@code id}.
+   *
+   * @param id the customer id
+   */
+  void invalidate(String id);
+}
@@ -0,0 +1,49 @@
+package com.base.demo.cache;
+
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CustomerCache} that never caches; every lookup goes to the data store.
+ * Enabled with {@code app.cache.customers.type: none}.
+ * <p>
+ * Concurrent lookups of the same id still share one read through a {@link SingleFlight} (counted in
+ * {@code singleflight.coalesced{name=customers}}), the coalescing the Caffeine cache already gives on a miss.
+ * {@link #invalidate} detaches the read in flight so that lookups after a write do not join one that started before.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.customers.type", havingValue = "none")
+public class NoOpCustomerCache implements CustomerCache {
+
+  private final SingleFlight<String, Optional<CustomerResponse>> reads;
+
+  public NoOpCustomerCache(MeterRegistry registry) {
+    this.reads = new SingleFlight<>("customers", registry);
+  }
+
+  @Override
+  public CompletableFuture<Optional<CustomerResponse>> getAsync(
+      String id, Function<String, CompletableFuture<Optional<CustomerResponse>>> loader) {
+    return reads.execute(id, loader);
+  }
+
+  @Override
+  public Map<String, Optional<CustomerResponse>> getAll(
+      Collection<String> ids, Function<Set<String>, Map<String, Optional<CustomerResponse>>> loader) {
+    return loader.apply(new LinkedHashSet<>(ids));
+  }
+
+  @Override
+  public void invalidate(String id) {
+    reads.forget(id);
+  }
+}
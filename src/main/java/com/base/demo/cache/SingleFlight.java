@@ -0,0 +1,86 @@
+package com.base.demo.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent calls for the same key into a single upstream call.
+ * <p>
+ * The first caller for a key starts the call; callers that arrive while it is in flight get the same outcome (value
+ * or exception) instead of starting their own. The entry is removed as soon as the call completes, so nothing is
+ * cached: a caller arriving afterwards starts a fresh call. Each caller receives its own copy of the shared future,
+ * so one caller timing out or cancelling does not affect the others.
+ * <p>
+ * Coalesced calls are counted in {@code singleflight.coalesced}, tagged with {@code name}.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter coalesced;
+
+  public SingleFlight(String name, MeterRegistry registry) {
+    this.coalesced = Counter.builder("singleflight.coalesced")
+                            .description("Calls served by joining an identical call already in flight")
+                            .tag("name", name)
+                            .register(registry);
+  }
+
+  /**
+   * Runs {@code call} for {@code key}, or joins the call already in flight for it.
+   *
+   * @param key  the key identifying identical calls
+   * @param call starts the upstream call; only invoked when no call for {@code key} is in flight
+   *
+   * @return a future completed with the outcome of the shared call
+   */
+  public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> call) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      coalesced.increment();
+      return existing.copy();
+    }
+
+    CompletableFuture<V> source;
+    try {
+      source = call.apply(key);
+    } catch (RuntimeException e) {
+      source = CompletableFuture.failedFuture(e);
+    }
+    source.whenComplete((value, ex) -> {
+      inFlight.remove(key, created); // antes de completar: quien llegue después lanza una llamada nueva
+      if (ex != null) {
+        created.completeExceptionally(ex);
+      } else {
+        created.complete(value);
+      }
+    });
+    return created.copy();
+  }
+
+  /**
+   * Detaches the call in flight for {@code key}, if any. Callers already waiting on it still get its outcome; callers
+   * arriving afterwards start a fresh call, so nobody joins a read that began before a write.
+   *
+   * @param key the key whose in-flight call must not be joined any more
+   */
+  public void forget(K key) {
+    inFlight.remove(key);
+  }
+
+  /**
+   * Returns the number of keys with a call currently in flight.
+   *
+   * @return the in-flight count
+   */
+  public int inFlight() {
+    return inFlight.size();
+  }
+}
@@ -0,0 +1,120 @@
+package com.base.demo.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the latency it observes (AIMD).
+ * <p>
+ * Each completed call feeds its round-trip time into two moving averages: a short one that follows current latency
+ * and a long one that acts as the no-load baseline. While the short average stays within {@code tolerance} times the
+ * baseline and the limit is actually being used, the limit grows by one per limit's worth of calls (additive
+ * increase). When latency exceeds that band, or a call fails with an overload signal (timeout, unavailable,
+ * throttled), the limit is multiplied by {@code backoffRatio}, at most once per round trip (multiplicative decrease).
+ * Calls over the limit are rejected right away instead of queueing behind the slow ones.
+ * <p>
+ * Published meters, tagged with {@code limiter}: {@code concurrency.limit}, {@code concurrency.in_flight} and the
+ * {@code concurrency.rejected} counter.
+ */
+public final class AdaptiveLimiter {
+
+  private static final double RECENT_WEIGHT = 0.1;
+  private static final double BASELINE_WEIGHT = 0.001;
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double backoffRatio;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Counter rejected;
+
+  private volatile int currentLimit;
+  // protegidos por this
+  private double limit;
+  private double recentNanos;
+  private double baselineNanos;
+  private long lastDecrease;
+
+  AdaptiveLimiter(String name, MeterRegistry registry, int initialLimit, int minLimit, int maxLimit,
+                  double tolerance, double backoffRatio) {
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.backoffRatio = backoffRatio;
+    this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    this.currentLimit = (int) limit;
+    this.rejected = Counter.builder("concurrency.rejected")
+                           .description("Requests or upstream calls shed because the concurrency limit was reached")
+                           .tag("limiter", name)
+                           .register(registry);
+    Gauge.builder("concurrency.limit", this, l -> l.currentLimit)
+         .description("Current adaptive concurrency limit")
+         .tag("limiter", name)
+         .register(registry);
+    Gauge.builder("concurrency.in_flight", inFlight, AtomicInteger::get)
+         .description("Requests or upstream calls currently holding a permit")
+         .tag("limiter", name)
+         .register(registry);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Takes a permit if the limit allows it. Every successful call must be paired with one {@link #release}.
+   *
+   * @return whether the call may proceed
+   */
+  public boolean tryAcquire() {
+    if (inFlight.incrementAndGet() > currentLimit) {
+      inFlight.decrementAndGet();
+      rejected.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns a permit and adjusts the limit with the outcome of the call.
+   *
+   * @param rttNanos how long the call held the permit
+   * @param outcome  how the call ended
+   */
+  public void release(long rttNanos, Outcome outcome) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    if (outcome == Outcome.IGNORED) return;
+    long now = System.nanoTime();
+    synchronized (this) {
+      if (outcome == Outcome.SUCCESS) {
+        recentNanos = recentNanos == 0 ? rttNanos : recentNanos + (rttNanos - recentNanos) * RECENT_WEIGHT;
+        baselineNanos = baselineNanos == 0 ? rttNanos : baselineNanos + (rttNanos - baselineNanos) * BASELINE_WEIGHT;
+      }
+      if (outcome == Outcome.DROPPED || recentNanos > baselineNanos * tolerance) {
+        if (now - lastDecrease > recentNanos) { // una reducción por ventana, no una por cada llamada lenta
+          limit = Math.max(minLimit, limit * backoffRatio);
+          lastDecrease = now;
+        }
+      } else if (inFlightBefore * 2 >= limit) { // solo crece si el límite se está usando
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      }
+      currentLimit = (int) limit;
+    }
+  }
+
+  /**
+   * How a call ended, as far as the limit is concerned.
+   */
+  public enum Outcome {
+    /** Completed; its latency is a valid sample. */
+    SUCCESS,
+    /** Failed with an overload signal; the limit backs off. */
+    DROPPED,
+    /** Failed for a reason unrelated to load (not found, conflict, bad input); not a latency sample. */
+    IGNORED
+  }
+}
@@ -0,0 +1,97 @@
+package com.base.demo.concurrency;
+
+import com.base.demo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link AdaptiveLimiter}s of the application, one per backing service ({@code upstream.firestore},
+ * {@code upstream.gcs}) and one per endpoint class ({@code endpoint.customer.read}, ...), all created on first use with
+ * the {@code app.concurrency.*} settings. Bulk traffic to a backing service ({@code upstream.firestore.bulk}) gets
+ * its own limiter from {@link #bulk}, capped at {@code app.concurrency.bulk.max-limit}, so long bulk writes neither
+ * take the permits of interactive calls nor skew their latency baseline. With {@code app.concurrency.enabled: false}
+ * every permit is granted and nothing is measured.
+ */
+@Component
+public class AdaptiveLimiters {
+
+  private final MeterRegistry registry;
+  private final boolean enabled;
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double backoffRatio;
+  private final Duration retryAfter;
+  private final int bulkInitialLimit;
+  private final int bulkMaxLimit;
+  private final ConcurrentMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+  public AdaptiveLimiters(MeterRegistry registry,
+                          @Value("${app.concurrency.enabled:true}") boolean enabled,
+                          @Value("${app.concurrency.initial-limit:100}") int initialLimit,
+                          @Value("${app.concurrency.min-limit:5}") int minLimit,
+                          @Value("${app.concurrency.max-limit:1000}") int maxLimit,
+                          @Value("${app.concurrency.latency-tolerance:2.0}") double tolerance,
+                          @Value("${app.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                          @Value("${app.concurrency.retry-after:1s}") Duration retryAfter,
+                          @Value("${app.concurrency.bulk.initial-limit:8}") int bulkInitialLimit,
+                          @Value("${app.concurrency.bulk.max-limit:16}") int bulkMaxLimit) {
+    this.registry = registry;
+    this.enabled = enabled;
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.backoffRatio = backoffRatio;
+    this.retryAfter = retryAfter;
+    this.bulkInitialLimit = bulkInitialLimit;
+    this.bulkMaxLimit = bulkMaxLimit;
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the limiter named {@code name}, creating it on first use.
+   *
+   * @param name the limiter name, published as the {@code limiter} tag
+   *
+   * @return the limiter
+   */
+  public AdaptiveLimiter get(String name) {
+    return limiters.computeIfAbsent(name, n -> new AdaptiveLimiter(n, registry, initialLimit, minLimit, maxLimit,
+                                                                   tolerance, backoffRatio));
+  }
+
+  /**
+   * Returns the bulk limiter named {@code name}, creating it on first use with the {@code app.concurrency.bulk.*}
+   * initial and maximum limits.
+   *
+   * @param name the limiter name, published as the {@code limiter} tag
+   *
+   * @return the limiter
+   */
+  public AdaptiveLimiter bulk(String name) {
+    return limiters.computeIfAbsent(name, n -> new AdaptiveLimiter(n, registry, bulkInitialLimit,
+                                                                   Math.min(minLimit, bulkInitialLimit),
+                                                                   bulkMaxLimit, tolerance, backoffRatio));
+  }
+
+  /**
+   * The exception to throw when {@code limiter} rejects a call.
+   *
+   * @param limiter the limiter that rejected it
+   *
+   * @return a 503 with {@code app.concurrency.retry-after}
+   */
+  public ServiceOverloadedException overloaded(AdaptiveLimiter limiter) {
+    return new ServiceOverloadedException("Service overloaded (%s), retry later".formatted(limiter.name()),
+                                          retryAfter);
+  }
+}
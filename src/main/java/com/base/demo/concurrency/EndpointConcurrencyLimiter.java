@@ -0,0 +1,82 @@
+package com.base.demo.concurrency;
+
+import com.base.demo.concurrency.AdaptiveLimiter.Outcome;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Sheds API requests per endpoint class before they reach the controllers, so that a slow backing service fills
+ * the limit of the endpoints that use it instead of every request thread.
+ * <p>
+ * The class of an endpoint is its controller and whether it reads or writes, e.g. {@code endpoint.customer.read} for
+ * the GET endpoints of {@code CustomerController}; handlers annotated with {@link ReadEndpoint} count as reads
+ * whatever their method (e.g. {@code POST /batch-get}). A request holds its permit until it completes, including the
+ * time an async ({@code CompletableFuture}) handler is waiting, and its overall latency drives the limit. The
+ * streaming endpoints (export, downloads, the bulk import whose body the client sends at its own pace) are left out:
+ * their duration depends on the client, not on load. Their Firestore traffic is still limited upstream.
+ */
+@Component
+@RequiredArgsConstructor
+public class EndpointConcurrencyLimiter implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+  private static final String PERMIT = EndpointConcurrencyLimiter.class.getName() + ".permit";
+
+  private final AdaptiveLimiters limiters;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    if (!limiters.enabled()) return;
+    registry.addInterceptor(this)
+            .addPathPatterns("/api/**")
+            .excludePathPatterns("/api/customers/export", "/api/customers/bulk");
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+      return true; // en el redespacho async el permiso ya se tomó en el despacho inicial
+    }
+    if (request.getRequestURI().startsWith("/api/files/") && "GET".equals(request.getMethod())) {
+      return true; // descargas en streaming
+    }
+    AdaptiveLimiter limiter = limiters.get(endpointClass(method, request));
+    if (!limiter.tryAcquire()) {
+      throw limiters.overloaded(limiter);
+    }
+    request.setAttribute(PERMIT, new Permit(limiter, System.nanoTime()));
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                              @Nullable Exception ex) {
+    if (request.isAsyncStarted()) return; // se libera al terminar el redespacho async
+    if (!(request.getAttribute(PERMIT) instanceof Permit permit)) return;
+    request.removeAttribute(PERMIT);
+    int status = response.getStatus();
+    Outcome outcome = status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()
+        ? Outcome.DROPPED
+        : status >= 500 ? Outcome.IGNORED : Outcome.SUCCESS;
+    permit.limiter().release(System.nanoTime() - permit.start(), outcome);
+  }
+
+  private static String endpointClass(HandlerMethod method, HttpServletRequest request) {
+    String controller = method.getBeanType().getSimpleName().replace("Controller", "").toLowerCase(Locale.ROOT);
+    boolean read = method.hasMethodAnnotation(ReadEndpoint.class)
+        || "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    String kind = read ? "read" : "write";
+    return "endpoint." + controller + "." + kind;
+  }
+
+  private record Permit(AdaptiveLimiter limiter, long start) {}
+}
@@ -0,0 +1,17 @@
+package com.base.demo.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that only reads although it is not a GET (e.g. a lookup whose ids travel in a POST body), so
+ * {@link EndpointConcurrencyLimiter} counts it in the read class of its controller.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadEndpoint {
+}
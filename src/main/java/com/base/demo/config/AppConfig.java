@@ -1,11 +1,20 @@
 package com.base.demo.config;
 
+import com.base.demo.model.DTO.customer.BatchGetResponse;
+import com.base.demo.model.DTO.customer.BulkCreateResponse;
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.util.List;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -30,6 +39,24 @@ public class AppConfig implements WebMvcConfigurer {
     registry.addResourceHandler("/webjars/**").addResourceLocations("classpath:/META-INF/resources/webjars/");
   }
 
+  /**
+   * Swaps the Jackson converter for one that caches a writer per envelope type, prefetching the envelopes the
+   * controllers return.
+   *
+   * @param converters the converters configured so far
+   */
+  @Override
+  public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+    converters.replaceAll(c -> c instanceof MappingJackson2HttpMessageConverter jackson
+        ? envelopeConverter(jackson.getObjectMapper())
+        : c);
+  }
+
+  private EnvelopeJacksonHttpMessageConverter envelopeConverter(final ObjectMapper mapper) {
+    return new EnvelopeJacksonHttpMessageConverter(mapper).prefetch(CustomerResponse.class, CustomerPage.class,
+                                                                    BatchGetResponse.class, BulkCreateResponse.class);
+  }
+
   /**
    * Creates a new {@link RestTemplate} instance
    * using the given {@link RestTemplateBuilder}.
@@ -40,13 +67,15 @@ public class AppConfig implements WebMvcConfigurer {
    * @return a new RestTemplate instance
    */
   @Bean
+  @Lazy
   @ConditionalOnMissingBean
   public RestTemplate restTemplate(final RestTemplateBuilder builder) {
     return builder.build();
   }
 
   /**
-   * Creates a new {@link ObjectMapper} instance for JSON processing.
+   * Creates a new {@link ObjectMapper} instance for JSON processing, with Java time support and Blackbird's
+   * generated property accessors.
    *
    * @return a new ObjectMapper instance
    */
@@ -54,6 +83,7 @@ public class AppConfig implements WebMvcConfigurer {
   public ObjectMapper objectMapper() {
     ObjectMapper mapper = new ObjectMapper();
     mapper.registerModule(new JavaTimeModule());
+    mapper.registerModule(new BlackbirdModule()); // accesores generados con LambdaMetafactory en vez de reflexión
     return mapper;
   }
 }
@@ -1,27 +1,27 @@
 package com.base.demo.config;
 
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
+import com.base.demo.security.GoogleCertsKeySource;
+import com.base.demo.security.SigningKeySource;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.IOException;
-import java.security.GeneralSecurityException;
-import java.util.Collections;
+import java.net.URI;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class AuthConfig {
 
+  /**
+   * Source of the keys used to verify Google ID tokens. Override {@code app.auth.keys.certs-url}, or declare another
+   * {@link SigningKeySource} bean, to verify against a local stub.
+   */
   @Bean
-  GoogleIdTokenVerifier googleIdTokenVerifier(@Value("${google.client-id}") String clientId)
-      throws GeneralSecurityException, IOException {
-    return new GoogleIdTokenVerifier.Builder(
-        GoogleNetHttpTransport.newTrustedTransport(),
-        GsonFactory.getDefaultInstance())
-        .setAudience(Collections.singletonList(clientId))
-        .setIssuer("https://accounts.google.com")
-        .build();
+  @ConditionalOnMissingBean
+  SigningKeySource signingKeySource(
+      @Value("${app.auth.keys.certs-url:https://www.googleapis.com/oauth2/v1/certs}") URI certsUrl,
+      ObjectMapper objectMapper) {
+    return new GoogleCertsKeySource(certsUrl, objectMapper);
   }
 }
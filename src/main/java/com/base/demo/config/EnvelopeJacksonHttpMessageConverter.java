@@ -0,0 +1,78 @@
+package com.base.demo.config;
+
+import com.base.demo.model.CustomApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+/**
+ * Jackson converter that keeps one {@link ObjectWriter} per declared body type and writes straight to the response
+ * stream with it.
+ * <p>
+ * The stock converter builds a fresh writer on every call and, for non-container types such as
+ * {@link CustomApiResponse}, resolves the root serializer from the runtime class each time. Here the writer is built
+ * once per generic return type ({@code CustomApiResponse<CustomerPage>}, ...) with its root serializer prefetched, so
+ * a request only pays for the write itself. Bodies with a view or filters, non-UTF-8 charsets or a runtime class that
+ * does not match the declared type fall back to the stock path.
+ */
+public class EnvelopeJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+  private final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  public EnvelopeJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+    super(objectMapper);
+  }
+
+  /**
+   * Resolves the serializers of {@code CustomApiResponse<payload>} for each payload type up front, so the first
+   * request of each endpoint does not pay for introspection and accessor generation.
+   *
+   * @param payloads the payload types the controllers return inside the envelope
+   *
+   * @return this converter
+   */
+  public EnvelopeJacksonHttpMessageConverter prefetch(Class<?>... payloads) {
+    ObjectMapper mapper = getObjectMapper();
+    for (Class<?> payload : payloads) {
+      JavaType type = mapper.getTypeFactory().constructParametricType(CustomApiResponse.class, payload);
+      mapper.writerFor(type); // deja el serializador en la caché compartida del mapper
+    }
+    return this;
+  }
+
+  @Override
+  protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    if (type == null || object instanceof MappingJacksonValue || !isUtf8(outputMessage.getHeaders().getContentType())
+        || !TypeUtils.isAssignable(type, object.getClass())) {
+      super.writeInternal(object, type, outputMessage);
+      return;
+    }
+    ObjectWriter writer = writers.computeIfAbsent(type, t -> getObjectMapper().writerFor(getJavaType(t, null)));
+    try {
+      writer.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+    } catch (JsonProcessingException e) {
+      throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+    }
+  }
+
+  private static boolean isUtf8(@Nullable MediaType contentType) {
+    Charset charset = contentType != null ? contentType.getCharset() : null;
+    return charset == null || StandardCharsets.UTF_8.equals(charset);
+  }
+}
@@ -1,17 +1,39 @@
 package com.base.demo.config;
 
+import com.google.api.gax.grpc.ChannelPoolSettings;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.api.gax.retrying.RetrySettings;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.NoCredentials;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.v1.FirestoreSettings;
+import com.google.cloud.grpc.GrpcTransportOptions;
+import com.google.cloud.http.HttpTransportOptions;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
+/**
+ * Google Cloud clients.
+ * <p>
+ * Transport settings are exposed under {@code app.gcp}: Firestore (gRPC) gets a fixed-size channel pool, keepalive,
+ * a maximum inbound message size, retry/timeout settings and a sized background executor; Storage (JSON over HTTP)
+ * gets connect/read timeouts and retry/timeout settings. Connections are opened ahead of traffic by
+ * {@link GcpWarmup}.
+ * <p>
+ * {@code app.gcp.firestore.emulator-host} and {@code app.gcp.storage.host} point the clients at local emulators
+ * (Firestore emulator, fake-gcs-server) without credentials, for offline load tests.
+ */
 @Configuration
 public class GcpConfig {
 
@@ -28,21 +50,121 @@ public class GcpConfig {
     }
   }
 
+  @Value("${app.gcp.virtual-threads:false}")
+  private boolean virtualThreads;
+
   @Bean
-  Firestore firestore(GoogleCredentials creds) {
-    return FirestoreOptions.newBuilder()
-                           .setProjectId(projectId)
-                           .setCredentials(creds)
-                           .build()
-                           .getService();
+  Firestore firestore(GoogleCredentials creds,
+                      @Value("${app.gcp.firestore.executor-threads:8}") int executorThreads,
+                      @Value("${app.gcp.firestore.channel-pool-size:4}") int channelPoolSize,
+                      @Value("${app.gcp.firestore.keepalive-time:30s}") Duration keepaliveTime,
+                      @Value("${app.gcp.firestore.keepalive-timeout:10s}") Duration keepaliveTimeout,
+                      @Value("${app.gcp.firestore.max-inbound-message-size:16MB}") DataSize maxInboundMessageSize,
+                      @Value("${app.gcp.firestore.retry.max-attempts:5}") int maxAttempts,
+                      @Value("${app.gcp.firestore.retry.initial-delay:100ms}") Duration initialDelay,
+                      @Value("${app.gcp.firestore.retry.max-delay:5s}") Duration maxDelay,
+                      @Value("${app.gcp.firestore.retry.rpc-timeout:10s}") Duration rpcTimeout,
+                      @Value("${app.gcp.firestore.retry.total-timeout:30s}") Duration totalTimeout,
+                      @Value("${app.gcp.firestore.emulator-host:}") String emulatorHost) {
+    GrpcTransportOptions transport =
+        GrpcTransportOptions.newBuilder()
+                            .setExecutorFactory(new ScheduledExecutorFactory("firestore-", executorThreads,
+                                                                             virtualThreads))
+                            .build();
+    FirestoreOptions.Builder builder =
+        FirestoreOptions.newBuilder()
+                        .setProjectId(projectId)
+                        .setTransportOptions(transport)
+                        .setRetrySettings(retrySettings(maxAttempts, initialDelay, maxDelay, rpcTimeout,
+                                                        totalTimeout));
+    if (!emulatorHost.isBlank()) {
+      // emulador local: canal en claro y sin credenciales
+      return builder.setEmulatorHost(emulatorHost)
+                    .setCredentials(NoCredentials.getInstance())
+                    .build()
+                    .getService();
+    }
+
+    InstantiatingGrpcChannelProvider channels =
+        FirestoreSettings.defaultGrpcTransportProviderBuilder()
+                         .setChannelPoolSettings(ChannelPoolSettings.staticallySized(channelPoolSize))
+                         .setKeepAliveTime(threeten(keepaliveTime))
+                         .setKeepAliveTimeout(threeten(keepaliveTimeout))
+                         .setKeepAliveWithoutCalls(true) // mantiene vivos los canales ociosos entre picos
+                         .setMaxInboundMessageSize((int) maxInboundMessageSize.toBytes())
+                         .build();
+
+    return builder.setCredentials(creds)
+                  .setChannelProvider(channels)
+                  .build()
+                  .getService();
   }
 
   @Bean
-  Storage storage(GoogleCredentials creds) {
-    return StorageOptions.newBuilder()
-                         .setProjectId(projectId)
-                         .setCredentials(creds)
-                         .build()
-                         .getService();
+  Storage storage(GoogleCredentials creds,
+                  @Value("${app.gcp.storage.connect-timeout:5s}") Duration connectTimeout,
+                  @Value("${app.gcp.storage.read-timeout:20s}") Duration readTimeout,
+                  @Value("${app.gcp.storage.retry.max-attempts:6}") int maxAttempts,
+                  @Value("${app.gcp.storage.retry.initial-delay:1s}") Duration initialDelay,
+                  @Value("${app.gcp.storage.retry.max-delay:32s}") Duration maxDelay,
+                  @Value("${app.gcp.storage.retry.rpc-timeout:50s}") Duration rpcTimeout,
+                  @Value("${app.gcp.storage.retry.total-timeout:50s}") Duration totalTimeout,
+                  @Value("${app.gcp.storage.host:}") String host) {
+    HttpTransportOptions transport = HttpTransportOptions.newBuilder()
+                                                         .setConnectTimeout((int) connectTimeout.toMillis())
+                                                         .setReadTimeout((int) readTimeout.toMillis())
+                                                         .build();
+    StorageOptions.Builder builder =
+        StorageOptions.newBuilder()
+                      .setProjectId(projectId)
+                      .setCredentials(creds)
+                      .setTransportOptions(transport)
+                      .setRetrySettings(retrySettings(maxAttempts, initialDelay, maxDelay, rpcTimeout,
+                                                      totalTimeout));
+    if (!host.isBlank()) {
+      // servidor compatible con la API JSON (p. ej. fake-gcs-server); sin credenciales
+      builder.setHost(host).setCredentials(NoCredentials.getInstance());
+    }
+    return builder.build().getService();
+  }
+
+  private static RetrySettings retrySettings(int maxAttempts, Duration initialDelay, Duration maxDelay,
+                                             Duration rpcTimeout, Duration totalTimeout) {
+    return RetrySettings.newBuilder()
+                        .setMaxAttempts(maxAttempts)
+                        .setInitialRetryDelay(threeten(initialDelay))
+                        .setRetryDelayMultiplier(2.0)
+                        .setMaxRetryDelay(threeten(maxDelay))
+                        .setInitialRpcTimeout(threeten(rpcTimeout))
+                        .setRpcTimeoutMultiplier(1.0)
+                        .setMaxRpcTimeout(threeten(rpcTimeout))
+                        .setTotalTimeout(threeten(totalTimeout))
+                        .build();
+  }
+
+  private static org.threeten.bp.Duration threeten(Duration d) {
+    return org.threeten.bp.Duration.ofNanos(d.toNanos());
+  }
+
+  /**
+   * Hands the Google client a scheduled executor for gRPC callbacks and {@code ApiFuture} continuations: a pool of
+   * {@code threads} platform threads, or with {@code virtual} a {@link VirtualThreadScheduledExecutor} whose
+   * {@code threads} platform threads only keep the timers while each task runs on its own (unpooled) virtual thread.
+   */
+  private record ScheduledExecutorFactory(String prefix, int threads, boolean virtual)
+      implements GrpcTransportOptions.ExecutorFactory<ScheduledExecutorService> {
+
+    @Override
+    public ScheduledExecutorService get() {
+      if (virtual) {
+        return new VirtualThreadScheduledExecutor(prefix, threads);
+      }
+      return Executors.newScheduledThreadPool(threads, Thread.ofPlatform().name(prefix, 0).daemon(true).factory());
+    }
+
+    @Override
+    public void release(ScheduledExecutorService executor) {
+      executor.shutdown();
+    }
   }
 }
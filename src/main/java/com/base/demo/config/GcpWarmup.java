@@ -0,0 +1,84 @@
+package com.base.demo.config;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.storage.Storage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens the Google Cloud connections before the application reports itself ready, so the first real requests do
+ * not pay for DNS, TLS, HTTP/2 setup and the OAuth token exchange.
+ * <p>
+ * Runs on {@link ApplicationReadyEvent}, which is published before the readiness state switches to
+ * {@code ACCEPTING_TRAFFIC}. Firestore gets one cheap read (an empty field mask on a document that does not exist)
+ * per pooled channel, issued concurrently so every channel is connected; Storage gets a metadata read of the
+ * bucket. Failures are logged and never block startup beyond {@code app.gcp.warm-up.timeout}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.gcp.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class GcpWarmup {
+
+  /** Máscara vacía: la lectura abre el canal sin transferir campos. */
+  private static final FieldMask EMPTY_MASK = FieldMask.of(new String[0]);
+
+  private final Firestore firestore;
+  private final Storage storage;
+  private final String bucket;
+  private final int channelPoolSize;
+  private final Duration timeout;
+
+  public GcpWarmup(Firestore firestore, Storage storage,
+                   @Value("${app.storage.bucket}") String bucket,
+                   @Value("${app.gcp.firestore.channel-pool-size:4}") int channelPoolSize,
+                   @Value("${app.gcp.warm-up.timeout:10s}") Duration timeout) {
+    this.firestore = firestore;
+    this.storage = storage;
+    this.bucket = bucket;
+    this.channelPoolSize = channelPoolSize;
+    this.timeout = timeout;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    long start = System.nanoTime();
+    warmUpFirestore();
+    warmUpStorage();
+    log.info("GCP clients warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private void warmUpFirestore() {
+    DocumentReference probe = firestore.collection("_warmup").document("probe");
+    List<ApiFuture<?>> reads = new ArrayList<>(channelPoolSize);
+    for (int i = 0; i < channelPoolSize; i++) {
+      reads.add(firestore.getAll(new DocumentReference[] {probe}, EMPTY_MASK));
+    }
+    try {
+      ApiFutures.allAsList(reads).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.warn("Firestore warm-up failed; the first requests will open the connections", e);
+    }
+  }
+
+  private void warmUpStorage() {
+    try {
+      storage.get(bucket, Storage.BucketGetOption.fields(Storage.BucketField.NAME));
+    } catch (RuntimeException e) {
+      log.warn("Storage warm-up failed; the first requests will open the connections", e);
+    }
+  }
+}
@@ -28,7 +28,7 @@ public class SecurityConfig {
         .csrf(AbstractHttpConfigurer::disable)
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> auth
-            .requestMatchers("/public/**", "/actuator/health",
+            .requestMatchers("/public/**", "/actuator/health", "/actuator/health/**",
                              "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
             .permitAll()
             .anyRequest().authenticated())
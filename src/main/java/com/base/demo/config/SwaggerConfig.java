@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 
@@ -18,7 +19,9 @@ import java.util.Arrays;
 
 /**
  * Configuration for the Swagger API documentation.
+ * Lazy: the OpenAPI model is only built when the documentation is first requested, not at startup.
  */
+@Lazy
 @Configuration
 public class SwaggerConfig {
   /**
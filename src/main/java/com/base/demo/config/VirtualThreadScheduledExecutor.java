@@ -0,0 +1,118 @@
+package com.base.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScheduledExecutorService} for the Google clients when virtual threads are enabled. A few platform threads
+ * only keep the timers; every task, immediate or delayed, runs on a virtual thread of its own, so continuations may
+ * block without holding a carrier thread and are not capped by a pool size. Periodic tasks, which the clients only
+ * use for short housekeeping, run on the timer threads.
+ */
+final class VirtualThreadScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+  private final ScheduledThreadPoolExecutor timers;
+  private final ExecutorService workers;
+
+  VirtualThreadScheduledExecutor(String prefix, int timerThreads) {
+    this.timers = new ScheduledThreadPoolExecutor(
+        timerThreads, Thread.ofPlatform().name(prefix + "timer-", 0).daemon(true).factory());
+    this.timers.setRemoveOnCancelPolicy(true);
+    this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory());
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    workers.execute(command);
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return schedule(Executors.callable(command, null), delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    DelayedTask<V> task = new DelayedTask<>(callable);
+    task.timer = timers.schedule(() -> workers.execute(task), delay, unit);
+    return task;
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    return timers.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    return timers.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+  @Override
+  public void shutdown() {
+    timers.shutdown();
+    workers.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> pending = new ArrayList<>(timers.shutdownNow());
+    pending.addAll(workers.shutdownNow());
+    return pending;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return timers.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return timers.isTerminated() && workers.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    return timers.awaitTermination(timeout, unit)
+        && workers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * A delayed task: its timer lives on the platform scheduler, its body and result on a virtual thread.
+   */
+  private static final class DelayedTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+    private volatile ScheduledFuture<?> timer;
+
+    DelayedTask(Callable<V> callable) {
+      super(callable);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return timer.getDelay(unit);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      timer.cancel(false);
+      return super.cancel(mayInterruptIfRunning);
+    }
+  }
+}
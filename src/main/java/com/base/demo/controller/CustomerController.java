@@ -1,15 +1,28 @@
 package com.base.demo.controller;
 
+import com.base.demo.concurrency.ReadEndpoint;
 import com.base.demo.model.CustomApiResponse;
+import com.base.demo.model.DTO.customer.BatchGetRequest;
+import com.base.demo.model.DTO.customer.BatchGetResponse;
+import com.base.demo.model.DTO.customer.BulkCreateResponse;
 import com.base.demo.model.DTO.customer.CreateCustomerRequest;
+import com.base.demo.model.DTO.customer.CustomerPage;
 import com.base.demo.model.DTO.customer.CustomerResponse;
 import com.base.demo.service.CustomerService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -17,21 +30,92 @@ import org.springframework.web.bind.annotation.*;
 public class CustomerController {
   private final CustomerService service;
 
+  @Value("${app.customers.cache-control.get:private, no-cache}")
+  private String getCacheControl;
+
+  @Value("${app.customers.cache-control.list:private, no-cache}")
+  private String listCacheControl;
+
   @GetMapping("/{id}")
-  public ResponseEntity<CustomApiResponse<CustomerResponse>> get(@PathVariable String id) {
-    CustomerResponse customer = service.get(id);
-    return ResponseEntity.ok(new CustomApiResponse<>("Customer fetched successfully", customer));
+  public CompletableFuture<ResponseEntity<CustomApiResponse<CustomerResponse>>> get(
+      @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return service.getAsync(id).thenApply(customer -> fetched(customer, ifNoneMatch));
+  }
+
+  @GetMapping("/by-email")
+  public CompletableFuture<ResponseEntity<CustomApiResponse<CustomerResponse>>> getByEmail(
+      @RequestParam String email,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return service.getByEmailAsync(email).thenApply(customer -> fetched(customer, ifNoneMatch));
   }
 
+  private ResponseEntity<CustomApiResponse<CustomerResponse>> fetched(CustomerResponse customer,
+                                                                      String ifNoneMatch) {
+    String etag = CustomerETags.of(customer);
+    if (CustomerETags.matches(ifNoneMatch, etag)) {
+      return notModified(etag, getCacheControl); // ni se construye ni se serializa el cuerpo
+    }
+    return ResponseEntity.ok()
+                         .eTag(etag)
+                         .header(HttpHeaders.CACHE_CONTROL, getCacheControl)
+                         .body(new CustomApiResponse<>("Customer fetched successfully", customer));
+  }
+
+
+  @ReadEndpoint
+  @PostMapping("/batch-get")
+  public ResponseEntity<CustomApiResponse<BatchGetResponse>> batchGet(@Valid @RequestBody BatchGetRequest req) {
+    return ResponseEntity.ok(new CustomApiResponse<>("ok", service.getAll(req.ids())));
+  }
 
   @GetMapping
-  public CustomApiResponse<List<CustomerResponse>> list(@RequestParam(defaultValue = "20") int size) throws Exception {
-    return new CustomApiResponse<>("ok", service.list(size));
+  public CompletableFuture<ResponseEntity<CustomApiResponse<CustomerPage>>> list(
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String pageToken,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return service.listAsync(size, pageToken).thenApply(page -> {
+      String etag = CustomerETags.of(page);
+      if (CustomerETags.matches(ifNoneMatch, etag)) {
+        return notModified(etag, listCacheControl);
+      }
+      return ResponseEntity.ok()
+                           .eTag(etag)
+                           .header(HttpHeaders.CACHE_CONTROL, listCacheControl)
+                           .body(new CustomApiResponse<>("ok", page));
+    });
+  }
+
+  @GetMapping(value = "/export", produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> export() {
+    StreamingResponseBody body = service::export;
+    return ResponseEntity.ok()
+                         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=customers.ndjson")
+                         .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                         .body(body);
   }
 
   @PostMapping
-  public ResponseEntity<CustomApiResponse<String>> create(@Valid @RequestBody CreateCustomerRequest req) throws Exception {
-    String id = service.create(req);
-    return ResponseEntity.ok(new CustomApiResponse<>("created", id));
+  public CompletableFuture<ResponseEntity<CustomApiResponse<String>>> create(
+      @Valid @RequestBody CreateCustomerRequest req) {
+    return service.createAsync(req).thenApply(id -> ResponseEntity.ok(new CustomApiResponse<>("created", id)));
+  }
+
+  @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CustomApiResponse<BulkCreateResponse>> bulkCreate(
+      @RequestBody List<CreateCustomerRequest> reqs) {
+    return ResponseEntity.ok(new CustomApiResponse<>("bulk processed", service.bulkCreate(reqs.iterator())));
+  }
+
+  @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+  public ResponseEntity<CustomApiResponse<BulkCreateResponse>> bulkCreateNdjson(InputStream body) throws IOException {
+    return ResponseEntity.ok(new CustomApiResponse<>("bulk processed", service.bulkCreate(body)));
+  }
+
+  private static <T> ResponseEntity<T> notModified(String etag, String cacheControl) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                         .eTag(etag)
+                         .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                         .build();
   }
 }
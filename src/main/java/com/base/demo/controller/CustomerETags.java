@@ -0,0 +1,79 @@
+package com.base.demo.controller;
+
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Strong entity tags for customer resources, derived from Firestore's document update time so they can be compared
+ * without serializing the body.
+ */
+final class CustomerETags {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  private CustomerETags() {
+  }
+
+  /**
+   * ETag of a single customer: its update time (seconds and nanos), which changes on every write.
+   */
+  static String of(CustomerResponse customer) {
+    return quote(stamp(customer));
+  }
+
+  /**
+   * Combined validator of a page: a digest over the id and update time of every item plus the next page token, so
+   * any change, insertion or removal within the page changes it.
+   */
+  static String of(CustomerPage page) {
+    MessageDigest digest = sha256();
+    for (CustomerResponse customer : page.items()) {
+      digest.update(customer.id().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '@');
+      digest.update(stamp(customer).getBytes(StandardCharsets.US_ASCII));
+      digest.update((byte) ';');
+    }
+    if (page.nextPageToken() != null) {
+      digest.update(page.nextPageToken().getBytes(StandardCharsets.US_ASCII));
+    }
+    byte[] hash = digest.digest();
+    return quote(ENCODER.encodeToString(hash).substring(0, 22)); // 128 bits bastan como validador
+  }
+
+  /**
+   * Whether an {@code If-None-Match} header matches {@code etag}. Uses the weak comparison required for
+   * {@code If-None-Match}, so {@code W/"x"} matches {@code "x"}; {@code *} matches anything.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) return true;
+      if (tag.startsWith("W/")) tag = tag.substring(2);
+      if (tag.equals(etag)) return true;
+    }
+    return false;
+  }
+
+  private static String stamp(CustomerResponse customer) {
+    Instant version = customer.updatedAt() != null ? customer.updatedAt() : customer.createdAt();
+    return version == null ? "0" : version.getEpochSecond() + "." + version.getNano();
+  }
+
+  private static String quote(String value) {
+    return "\"" + value + "\"";
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
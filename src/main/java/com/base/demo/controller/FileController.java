@@ -1,62 +1,141 @@
 package com.base.demo.controller;
 
 import com.base.demo.model.CustomApiResponse;
+import com.base.demo.model.DTO.file.ObjectRequest;
+import com.base.demo.model.DTO.file.SignedUploadRequest;
+import com.base.demo.model.DTO.file.SignedUrlResponse;
+import com.base.demo.model.DTO.file.UploadedFile;
+import com.base.demo.service.FileService;
+import jakarta.validation.Valid;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.UUID;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
 
 import com.google.cloud.storage.Blob;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileController {
 
-  private final Storage storage;
-  private final String bucket;
+  private final FileService fileService;
 
-  public FileController(Storage storage, @Value("${app.storage.bucket}") String bucket) {
-    this.storage = storage;
-    this.bucket = bucket;
+  public FileController(FileService fileService) {
+    this.fileService = fileService;
   }
 
   @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-  public CustomApiResponse<Map<String, String>> upload(@RequestParam("file") MultipartFile file) throws IOException {
-    String objectName = "uploads/" + UUID.randomUUID() + "-" + sanitize(file.getOriginalFilename());
-    BlobInfo info = BlobInfo.newBuilder(BlobId.of(bucket, objectName))
-                            .setContentType(file.getContentType())
-                            .build();
-    storage.create(info, file.getBytes());
-    return new CustomApiResponse<>("uploaded", Map.of("bucket", bucket, "object", objectName));
+  public CustomApiResponse<UploadedFile> upload(@RequestParam("file") MultipartFile file) throws IOException {
+    return new CustomApiResponse<>("uploaded", fileService.upload(file));
   }
 
+  @PostMapping("/signed-upload")
+  public CustomApiResponse<SignedUrlResponse> signedUpload(@Valid @RequestBody SignedUploadRequest req) {
+    return new CustomApiResponse<>("ok", fileService.signUpload(req));
+  }
+
+  @PostMapping("/signed-upload/complete")
+  public CustomApiResponse<UploadedFile> completeSignedUpload(@Valid @RequestBody ObjectRequest req) {
+    return new CustomApiResponse<>("uploaded", fileService.completeUpload(req.object()));
+  }
+
+  @PostMapping("/signed-download")
+  public CustomApiResponse<SignedUrlResponse> signedDownload(@Valid @RequestBody ObjectRequest req) {
+    return new CustomApiResponse<>("ok", fileService.signDownload(req.object()));
+  }
+
+  /**
+   * Streams an object to the client. A single {@code Range} is honoured with {@code 206 Partial Content} (unless an
+   * {@code If-Range} validator no longer matches, in which case the whole object is sent); multiple ranges are
+   * ignored and the whole object is sent.
+   */
   @GetMapping("/{*objectName}")
-  public ResponseEntity<byte[]> download(@PathVariable("objectName") String objectName) {
-    Blob blob = storage.get(BlobId.of(bucket, objectName));
-    if (blob == null || !blob.exists()) {
+  public ResponseEntity<StreamingResponseBody> download(@PathVariable("objectName") String objectName,
+                                                        @RequestHeader HttpHeaders requestHeaders) {
+    String name = objectName.startsWith("/") ? objectName.substring(1) : objectName;
+    Optional<Blob> found = fileService.find(name);
+    if (found.isEmpty()) {
       return ResponseEntity.notFound().build();
     }
-    String filename = objectName.substring(objectName.lastIndexOf('/') + 1);
-    return ResponseEntity.ok()
-                         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" +
-                             URLEncoder.encode(filename, StandardCharsets.UTF_8))
-                         .contentType(MediaType.parseMediaType(blob.getContentType() == null ? "application/octet-stream" : blob.getContentType()))
-                         .body(blob.getContent());
+    Blob blob = found.get();
+    long length = blob.getSize();
+    String etag = "\"" + blob.getEtag() + "\"";
+    OffsetDateTime updated = blob.getUpdateTimeOffsetDateTime();
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+    headers.setETag(etag);
+    if (updated != null) {
+      headers.setLastModified(updated.toInstant());
+    }
+    String filename = name.substring(name.lastIndexOf('/') + 1);
+    headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" +
+        URLEncoder.encode(filename, StandardCharsets.UTF_8));
+    headers.setContentType(MediaType.parseMediaType(
+        blob.getContentType() == null ? "application/octet-stream" : blob.getContentType()));
+
+    Optional<HttpRange> range = singleRange(requestHeaders.getFirst(HttpHeaders.RANGE));
+    if (range.isPresent() && ifRangeMatches(requestHeaders.getFirst(HttpHeaders.IF_RANGE), etag, updated)) {
+      long[] bounds;
+      try {
+        bounds = new long[] {range.get().getRangeStart(length), range.get().getRangeEnd(length)};
+      } catch (IllegalArgumentException e) {
+        bounds = new long[] {length, -1};
+      }
+      long start = bounds[0];
+      long end = bounds[1];
+      if (start >= length || start > end) { // HttpRange no comprueba que el inicio caiga dentro del objeto
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                             .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                             .build();
+      }
+      headers.set(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, length));
+      headers.setContentLength(end - start + 1);
+      return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                           .headers(headers)
+                           .body(out -> fileService.copyRange(blob, start, end, out));
+    }
+
+    headers.setContentLength(length);
+    StreamingResponseBody body = length == 0 ? out -> { } : out -> fileService.copyRange(blob, 0, length - 1, out);
+    return ResponseEntity.ok().headers(headers).body(body);
+  }
+
+  private static Optional<HttpRange> singleRange(String header) {
+    if (header == null) return Optional.empty();
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(header);
+      return ranges.size() == 1 ? Optional.of(ranges.get(0)) : Optional.empty();
+    } catch (IllegalArgumentException e) {
+      return Optional.empty(); // Range mal formado: se ignora y se envía el objeto completo
+    }
   }
 
-  private static String sanitize(String name) {
-    if (name == null) return "file.bin";
-    return name.replaceAll("[\\r\\n\\\\\"]", "_");
+  private static boolean ifRangeMatches(String ifRange, String etag, OffsetDateTime updated) {
+    if (ifRange == null) return true;
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(etag); // If-Range usa comparación fuerte
+    }
+    if (updated == null) return false;
+    try {
+      ZonedDateTime since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME);
+      return since.toEpochSecond() == updated.toEpochSecond();
+    } catch (DateTimeParseException e) {
+      return false;
+    }
   }
 }
@@ -1,6 +1,7 @@
 package com.base.demo.exception;
 
 import com.base.demo.model.CustomApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import org.springframework.security.access.AccessDeniedException;
 import java.util.HashMap;
@@ -41,6 +43,18 @@ public class CustomExceptionHandler {
                          .body(new CustomApiResponse<>(ex.getMessage(), null));
   }
 
+  @ExceptionHandler(PayloadTooLargeException.class)
+  public ResponseEntity<CustomApiResponse<Void>> payloadTooLarge(PayloadTooLargeException ex) {
+    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                         .body(new CustomApiResponse<>(ex.getMessage(), null));
+  }
+
+  @ExceptionHandler(MaxUploadSizeExceededException.class)
+  public ResponseEntity<CustomApiResponse<Void>> maxUploadSize(MaxUploadSizeExceededException ex) {
+    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                         .body(new CustomApiResponse<>("Upload exceeds the maximum allowed size", null));
+  }
+
   @ExceptionHandler(DataStoreException.class)
   public ResponseEntity<CustomApiResponse<Void>> datastore(DataStoreException ex) {
     return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
@@ -216,6 +230,23 @@ public class CustomExceptionHandler {
     return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
   }
 
+  /**
+   * Handles {@link ServiceOverloadedException} by returning a SERVICE_UNAVAILABLE status with a {@code Retry-After}
+   * header, so well-behaved clients back off instead of retrying immediately.
+   *
+   * @param ex The caught {@link ServiceOverloadedException}.
+   *
+   * @return A response entity containing an error message, the HTTP SERVICE_UNAVAILABLE status code and the
+   *     {@code Retry-After} header in seconds.
+   */
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<CustomApiResponse<Object>> handleServiceOverloaded(final ServiceOverloadedException ex) {
+    long seconds = Math.max(1, ex.getRetryAfter().toSeconds());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                         .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                         .body(new CustomApiResponse<>(ex.getMessage(), null));
+  }
+
   /**
    * Handles token expiration errors by returning an {@link CustomApiResponse} with an UNAUTHORIZED status
    * and a message indicating that the token is expired.
@@ -0,0 +1,5 @@
+package com.base.demo.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+  public PayloadTooLargeException(String msg) { super(msg); }
+}
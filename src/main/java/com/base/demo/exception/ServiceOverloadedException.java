@@ -0,0 +1,27 @@
+package com.base.demo.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is shed because a concurrency limit is reached, either the one of an endpoint
+ * class or the one in front of a backing service. Mapped to 503 with a {@code Retry-After} header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  /**
+   * Constructs a new {@code ServiceOverloadedException}.
+   *
+   * @param message    the detail message
+   * @param retryAfter how long the client should wait before retrying
+   */
+  public ServiceOverloadedException(final String message, final Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
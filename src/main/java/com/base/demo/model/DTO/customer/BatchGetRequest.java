@@ -0,0 +1,9 @@
+package com.base.demo.model.DTO.customer;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record BatchGetRequest(
+    @NotEmpty List<@NotBlank String> ids
+) {}
@@ -0,0 +1,14 @@
+package com.base.demo.model.DTO.customer;
+
+import java.util.List;
+
+/**
+ * Result of a batch lookup.
+ *
+ * @param found   the customers that exist, in request order
+ * @param missing the requested ids that do not exist, in request order
+ */
+public record BatchGetResponse(
+    List<CustomerResponse> found,
+    List<String> missing
+) {}
@@ -0,0 +1,16 @@
+package com.base.demo.model.DTO.customer;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk create request.
+ *
+ * @param created number of customers created
+ * @param failed  number of items rejected or not written
+ * @param items   per-item outcome, in request order
+ */
+public record BulkCreateResponse(
+    int created,
+    int failed,
+    List<BulkCreateResult> items
+) {}
@@ -0,0 +1,14 @@
+package com.base.demo.model.DTO.customer;
+
+/**
+ * Outcome of one item of a bulk create request.
+ *
+ * @param index position of the item in the request (0-based)
+ * @param id    id of the created customer, or {@code null} if the item failed
+ * @param error why the item failed, or {@code null} if it was created
+ */
+public record BulkCreateResult(
+    int index,
+    String id,
+    String error
+) {}
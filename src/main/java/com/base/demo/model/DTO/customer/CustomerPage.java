@@ -0,0 +1,14 @@
+package com.base.demo.model.DTO.customer;
+
+import java.util.List;
+
+/**
+ * One page of the customers listing.
+ *
+ * @param items         the customers in this page, newest first
+ * @param nextPageToken opaque token to request the next page, or {@code null} when there are no more pages
+ */
+public record CustomerPage(
+    List<CustomerResponse> items,
+    String nextPageToken
+) {}
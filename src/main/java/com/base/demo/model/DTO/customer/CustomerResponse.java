@@ -6,5 +6,6 @@ public record CustomerResponse(
     String id,
     String name,
     String email,
-    Instant createdAt
+    Instant createdAt,
+    Instant updatedAt
 ) {}
\ No newline at end of file
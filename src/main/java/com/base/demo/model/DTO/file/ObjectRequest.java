@@ -0,0 +1,7 @@
+package com.base.demo.model.DTO.file;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ObjectRequest(
+    @NotBlank String object
+) {}
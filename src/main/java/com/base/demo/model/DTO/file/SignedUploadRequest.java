@@ -0,0 +1,10 @@
+package com.base.demo.model.DTO.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public record SignedUploadRequest(
+    @NotBlank String filename,
+    @NotBlank String contentType,
+    @Positive long size
+) {}
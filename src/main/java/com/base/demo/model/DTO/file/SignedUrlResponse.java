@@ -0,0 +1,21 @@
+package com.base.demo.model.DTO.file;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A V4 signed URL that lets the client talk to Cloud Storage directly.
+ *
+ * @param url       the signed URL
+ * @param method    the HTTP method the URL is signed for
+ * @param headers   headers the client must send exactly as given (they are part of the signature)
+ * @param object    the object name the URL points to
+ * @param expiresAt when the URL stops working
+ */
+public record SignedUrlResponse(
+    String url,
+    String method,
+    Map<String, String> headers,
+    String object,
+    Instant expiresAt
+) {}
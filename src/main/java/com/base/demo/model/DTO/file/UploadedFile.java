@@ -0,0 +1,20 @@
+package com.base.demo.model.DTO.file;
+
+/**
+ * An object stored in the bucket.
+ *
+ * @param bucket      the bucket name
+ * @param object      the object name
+ * @param contentType the object's content type
+ * @param size        the object size in bytes
+ * @param crc32c      base64 CRC32C of the content, as reported by Cloud Storage
+ * @param md5         base64 MD5 of the content, as reported by Cloud Storage
+ */
+public record UploadedFile(
+    String bucket,
+    String object,
+    String contentType,
+    long size,
+    String crc32c,
+    String md5
+) {}
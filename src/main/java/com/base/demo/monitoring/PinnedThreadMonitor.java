@@ -0,0 +1,77 @@
+package com.base.demo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier (typically I/O inside a {@code synchronized}
+ * block or a native frame), which silently caps concurrency at the number of carriers.
+ * <p>
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process. Every pinning longer than
+ * {@code app.virtual-threads.pinning-monitor.threshold} increments {@code jvm.threads.virtual.pinned} and is logged
+ * with the top of its stack so the offending code path can be found.
+ * <p>
+ * The recording stream is opened once the application is ready rather than while the context starts: starting JFR
+ * is one of the larger fixed startup costs, and this way the AOT/CDS training run, which exits after the context
+ * refresh, never starts it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class PinnedThreadMonitor {
+
+  private static final int LOGGED_FRAMES = 8;
+
+  private final Duration threshold;
+  private final Counter pinned;
+  private RecordingStream stream;
+
+  public PinnedThreadMonitor(MeterRegistry registry,
+                             @Value("${app.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold) {
+    this.threshold = threshold;
+    this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                         .description("Virtual threads that blocked while pinned to their carrier thread")
+                         .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    stream = new RecordingStream();
+    stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+    stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+    stream.startAsync();
+  }
+
+  @PreDestroy
+  void stop() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinned.increment();
+    String frames = event.getStackTrace() == null ? "<no stack>" :
+        event.getStackTrace().getFrames().stream()
+             .limit(LOGGED_FRAMES)
+             .map(PinnedThreadMonitor::format)
+             .collect(Collectors.joining("\n\tat "));
+    log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), frames);
+  }
+
+  private static String format(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+  }
+}
@@ -0,0 +1,109 @@
+package com.base.demo.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Time spent in each stage (auth, firestore, gcs, mapping) of one request, reported in the
+ * {@code Server-Timing} header by {@link ServerTimingFilter}.
+ * <p>
+ * An instance is attached to the request only while Server-Timing is enabled and the request is sampled; otherwise
+ * {@link #current()} returns a shared instance that ignores every measurement. Stages may be recorded from any thread
+ * (Firestore callbacks complete on the client's executor), so the instance must be looked up on the request thread
+ * and captured.
+ */
+public final class RequestTimings {
+
+  static final String ATTRIBUTE = RequestTimings.class.getName();
+
+  private static final RequestTimings DISABLED = new RequestTimings(false);
+
+  private final boolean enabled;
+  private final long startNanos = System.nanoTime();
+  private final ConcurrentMap<String, LongAdder> stages = new ConcurrentHashMap<>();
+
+  private RequestTimings(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  static RequestTimings start(HttpServletRequest request) {
+    RequestTimings timings = new RequestTimings(true);
+    request.setAttribute(ATTRIBUTE, timings);
+    return timings;
+  }
+
+  /**
+   * Returns the timings of {@code request}, or a no-op instance if Server-Timing is disabled.
+   *
+   * @param request the current request
+   *
+   * @return the request's timings
+   */
+  public static RequestTimings of(HttpServletRequest request) {
+    return request.getAttribute(ATTRIBUTE) instanceof RequestTimings timings ? timings : DISABLED;
+  }
+
+  /**
+   * Returns the timings of the request bound to the current thread, or a no-op instance if there is none.
+   *
+   * @return the current request's timings
+   */
+  public static RequestTimings current() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) return DISABLED;
+    Object timings = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    return timings instanceof RequestTimings t ? t : DISABLED;
+  }
+
+  /**
+   * Adds {@code nanos} to {@code stage}; a stage hit several times (e.g. two Firestore reads) accumulates.
+   *
+   * @param stage the stage name, a Server-Timing metric name
+   * @param nanos the elapsed time
+   */
+  public void add(String stage, long nanos) {
+    if (enabled) {
+      stages.computeIfAbsent(stage, s -> new LongAdder()).add(nanos);
+    }
+  }
+
+  /**
+   * Runs {@code work} and adds its duration to {@code stage}.
+   */
+  public <T> T time(String stage, Supplier<T> work) {
+    if (!enabled) return work.get();
+    long start = System.nanoTime();
+    try {
+      return work.get();
+    } finally {
+      add(stage, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Renders the stages plus the total so far as a {@code Server-Timing} header value, e.g.
+   * {@code auth;dur=0.41, firestore;dur=12.30, total;dur=14.02}.
+   */
+  String toHeader() {
+    StringBuilder header = new StringBuilder(64);
+    for (Map.Entry<String, LongAdder> stage : stages.entrySet()) {
+      append(header, stage.getKey(), stage.getValue().sum());
+    }
+    append(header, "total", System.nanoTime() - startNanos);
+    return header.toString();
+  }
+
+  private static void append(StringBuilder header, String name, long nanos) {
+    if (!header.isEmpty()) header.append(", ");
+    header.append(name).append(";dur=")
+          .append(String.format(Locale.ROOT, "%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+  }
+}
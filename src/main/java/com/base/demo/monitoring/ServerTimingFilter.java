@@ -0,0 +1,140 @@
+package com.base.demo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Adds a {@code Server-Timing} header with the per-stage breakdown collected in {@link RequestTimings}, so browser
+ * dev tools and load tests can see where a slow request spent its time.
+ * <p>
+ * Nothing is buffered: the response is wrapped and the header is set just before the body starts (first
+ * {@code getOutputStream}, {@code getWriter}, {@code flushBuffer} or {@code sendError}), or when the request ends if
+ * there is no body. It therefore covers the request up to its response body; writing the body is not included. For
+ * async handlers ({@code CompletableFuture} results) the body, and so the header, is written in the async dispatch.
+ * Streaming endpoints (file downloads and the customers export) are left alone.
+ * <p>
+ * Enabled with {@code app.server-timing.enabled}; only a {@code app.server-timing.sample-rate} fraction of requests
+ * is measured, the rest pay nothing.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  static final String HEADER = "Server-Timing";
+
+  private final double sampleRate;
+
+  public ServerTimingFilter(@Value("${app.server-timing.sample-rate:1.0}") double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    return uri.equals("/api/customers/export")
+        || (uri.startsWith("/api/files/") && "GET".equals(request.getMethod()));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!isAsyncDispatch(request)) {
+      if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+        chain.doFilter(request, response); // no muestreada: sin timings ni wrapper
+        return;
+      }
+      RequestTimings.start(request);
+    } else if (!(request.getAttribute(RequestTimings.ATTRIBUTE) instanceof RequestTimings)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    TimingResponse existing = WebUtils.getNativeResponse(response, TimingResponse.class);
+    TimingResponse target = (existing != null) ? existing : new TimingResponse(response, RequestTimings.of(request));
+    try {
+      chain.doFilter(request, target);
+    } finally {
+      // con un handler asíncrono la respuesta se escribe en el dispatch posterior
+      if (!request.isAsyncStarted()) {
+        target.writeHeader();
+      }
+    }
+  }
+
+  /**
+   * Sets the header once, right before anything can commit the response.
+   */
+  private static final class TimingResponse extends HttpServletResponseWrapper {
+
+    private final RequestTimings timings;
+    private boolean written;
+
+    TimingResponse(HttpServletResponse response, RequestTimings timings) {
+      super(response);
+      this.timings = timings;
+    }
+
+    void writeHeader() {
+      if (written) return;
+      written = true;
+      if (!isCommitted()) {
+        setHeader(HEADER, timings.toHeader());
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeader();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeader();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeader();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      writeHeader();
+      super.sendRedirect(location);
+    }
+  }
+}
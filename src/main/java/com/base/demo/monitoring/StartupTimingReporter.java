@@ -0,0 +1,73 @@
+package com.base.demo.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Reports how long a cold instance takes to become useful, measured from JVM start: until the application is ready
+ * and until the first request has been answered (which includes any lazy initialization that request triggers).
+ * <p>
+ * Both are logged once and published as the {@code application.startup.ready} and
+ * {@code application.startup.first-request} time gauges, so AOT/CDS builds can be compared against the plain jar.
+ * The gauges are registered when the application is ready, keeping meter registration out of the startup being
+ * measured.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupTimingReporter extends OncePerRequestFilter {
+
+  private final MeterRegistry registry;
+  private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+  private volatile long readyMillis = -1;
+  private volatile long firstRequestMillis = -1;
+
+  public StartupTimingReporter(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    readyMillis = sinceJvmStart();
+    log.info("Application ready {} ms after JVM start", readyMillis);
+    TimeGauge.builder("application.startup.ready", this, TimeUnit.MILLISECONDS, r -> r.readyMillis)
+             .description("Time from JVM start until the application was ready")
+             .register(registry);
+    TimeGauge.builder("application.startup.first-request", this, TimeUnit.MILLISECONDS, r -> r.firstRequestMillis)
+             .description("Time from JVM start until the first request was answered")
+             .register(registry);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      if (!firstRequestSeen.get() && firstRequestSeen.compareAndSet(false, true)) {
+        firstRequestMillis = sinceJvmStart();
+        log.info("First request ({} {}) answered {} ms after JVM start",
+                 request.getMethod(), request.getRequestURI(), firstRequestMillis);
+      }
+    }
+  }
+
+  private static long sinceJvmStart() {
+    return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+  }
+}
@@ -0,0 +1,258 @@
+package com.base.demo.monitoring;
+
+import com.base.demo.concurrency.AdaptiveLimiter;
+import com.base.demo.concurrency.AdaptiveLimiter.Outcome;
+import com.base.demo.concurrency.AdaptiveLimiters;
+import com.base.demo.exception.ServiceOverloadedException;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.BaseServiceException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every call to a backing service (Firestore, Cloud Storage) so request latency can be split into upstream
+ * time and our own.
+ * <p>
+ * Published meters, all tagged with {@code system} ({@code firestore}, {@code gcs}) and {@code target} (collection
+ * or bucket):
+ * <ul>
+ *   <li>{@code upstream.calls}: timer with percentile histograms, also tagged with {@code operation} and
+ *   {@code outcome} ({@code success} or {@code error}) and the {@code exception} simple class name.</li>
+ *   <li>{@code upstream.in_flight}: gauge of calls started and not yet finished.</li>
+ *   <li>{@code upstream.bytes}: summary of bytes moved per call, tagged with {@code direction}
+ *   ({@code upload}, {@code download}).</li>
+ * </ul>
+ * Each call is also a tracing span (child of the current request span) and is added to the request's
+ * {@link RequestTimings} under the {@code system} stage.
+ * <p>
+ * Calls also go through the {@link AdaptiveLimiter} of their system ({@code upstream.firestore},
+ * {@code upstream.gcs}): over the limit they fail right away with {@link ServiceOverloadedException} instead of
+ * piling up behind a slow service. Timeouts, {@code UNAVAILABLE}, {@code RESOURCE_EXHAUSTED} and HTTP 429/503/504
+ * make the limit back off. Operations named {@code bulk*} (BulkWriter flushes, backfills) use a separate, smaller
+ * limiter ({@code upstream.firestore.bulk}). Uploads and downloads, paced by the client, are not limited.
+ */
+@Component
+public class UpstreamMetrics {
+
+  public static final String FIRESTORE = "firestore";
+  public static final String GCS = "gcs";
+  /** Prefix of the operations that belong to bulk traffic and go through the system's bulk limiter. */
+  public static final String BULK = "bulk";
+
+  private final MeterRegistry registry;
+  private final Tracer tracer;
+  private final AdaptiveLimiters limiters;
+  private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Target, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentMap<BytesKey, DistributionSummary> bytes = new ConcurrentHashMap<>();
+
+  public UpstreamMetrics(MeterRegistry registry, ObjectProvider<Tracer> tracer, AdaptiveLimiters limiters) {
+    this.registry = registry;
+    this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    this.limiters = limiters;
+  }
+
+  /**
+   * Times a blocking call.
+   *
+   * @param system    the backing service
+   * @param target    the collection or bucket
+   * @param operation what is being done, e.g. {@code get}, {@code query}, {@code write}
+   * @param call      the call
+   *
+   * @return what {@code call} returns
+   *
+   * @throws ServiceOverloadedException if the system's concurrency limit is reached; {@code call} is not run
+   */
+  public <T, E extends Exception> T time(String system, String target, String operation, UpstreamCall<T, E> call)
+      throws E {
+    AdaptiveLimiter limiter = acquire(system, operation);
+    AtomicInteger gauge = inFlight(system, target);
+    RequestTimings timings = RequestTimings.current();
+    Span span = span(system, target, operation);
+    gauge.incrementAndGet();
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+      return call.call();
+    } catch (Exception | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      finish(system, target, operation, gauge, timings, span, start, failure);
+      release(limiter, start, failure);
+    }
+  }
+
+  /**
+   * Times a non-blocking call, from the moment it is started until its future completes.
+   *
+   * @param system    the backing service
+   * @param target    the collection or bucket
+   * @param operation what is being done
+   * @param call      starts the call
+   *
+   * @return the future returned by {@code call}, completing after the measurement is recorded; failed with
+   *     {@link ServiceOverloadedException} without running {@code call} if the system's concurrency limit is reached
+   */
+  public <T> CompletableFuture<T> timeAsync(String system, String target, String operation,
+                                            Supplier<CompletableFuture<T>> call) {
+    AdaptiveLimiter limiter;
+    try {
+      limiter = acquire(system, operation);
+    } catch (ServiceOverloadedException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    AtomicInteger gauge = inFlight(system, target);
+    RequestTimings timings = RequestTimings.current(); // en el hilo de la petición; el callback corre en otro
+    Span span = span(system, target, operation);
+    gauge.incrementAndGet();
+    long start = System.nanoTime();
+    CompletableFuture<T> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      finish(system, target, operation, gauge, timings, span, start, e);
+      release(limiter, start, e);
+      throw e;
+    }
+    return future.whenComplete((value, ex) -> {
+      Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+      finish(system, target, operation, gauge, timings, span, start, cause);
+      release(limiter, start, cause);
+    });
+  }
+
+  private AdaptiveLimiter acquire(String system, String operation) {
+    // subidas y descargas duran lo que tarde el cliente en enviar o leer: no son muestras de latencia del servicio
+    if (!limiters.enabled() || operation.equals("upload") || operation.equals("download")) return null;
+    AdaptiveLimiter limiter = operation.startsWith(BULK)
+        ? limiters.bulk("upstream." + system + "." + BULK)
+        : limiters.get("upstream." + system);
+    if (!limiter.tryAcquire()) {
+      throw limiters.overloaded(limiter);
+    }
+    return limiter;
+  }
+
+  private static void release(AdaptiveLimiter limiter, long start, Throwable failure) {
+    if (limiter != null) {
+      limiter.release(System.nanoTime() - start, outcome(failure));
+    }
+  }
+
+  /**
+   * Only failures that mean "the service is slow or saturated" make the limit back off; a not-found or a conflict
+   * says nothing about load.
+   */
+  private static Outcome outcome(Throwable failure) {
+    for (Throwable t = failure; t != null; t = t.getCause()) {
+      if (t instanceof TimeoutException || t instanceof SocketTimeoutException) return Outcome.DROPPED;
+      if (t instanceof ApiException api) {
+        StatusCode.Code code = api.getStatusCode().getCode();
+        return code == StatusCode.Code.DEADLINE_EXCEEDED || code == StatusCode.Code.UNAVAILABLE
+            || code == StatusCode.Code.RESOURCE_EXHAUSTED ? Outcome.DROPPED : Outcome.IGNORED;
+      }
+      if (t instanceof BaseServiceException service) {
+        int code = service.getCode();
+        return code == 429 || code == 503 || code == 504 ? Outcome.DROPPED : Outcome.IGNORED;
+      }
+    }
+    return failure == null ? Outcome.SUCCESS : Outcome.IGNORED;
+  }
+
+  private Span span(String system, String target, String operation) {
+    return tracer.nextSpan()
+                 .name(system + " " + operation)
+                 .tag("upstream.system", system)
+                 .tag("upstream.target", target)
+                 .start();
+  }
+
+  private void finish(String system, String target, String operation, AtomicInteger gauge, RequestTimings timings,
+                      Span span, long start, Throwable failure) {
+    long elapsed = System.nanoTime() - start;
+    gauge.decrementAndGet();
+    timer(system, target, operation, failure).record(elapsed, TimeUnit.NANOSECONDS);
+    timings.add(system, elapsed);
+    if (failure != null) {
+      span.error(failure);
+    }
+    span.end();
+  }
+
+  /**
+   * Records the bytes moved by one upload or download.
+   *
+   * @param system    the backing service
+   * @param target    the bucket
+   * @param direction {@code upload} or {@code download}
+   * @param count     the number of bytes
+   */
+  public void recordBytes(String system, String target, String direction, long count) {
+    bytes.computeIfAbsent(new BytesKey(system, target, direction),
+                          k -> DistributionSummary.builder("upstream.bytes")
+                                                  .description("Bytes transferred per upstream call")
+                                                  .baseUnit("bytes")
+                                                  .tags("system", k.system(), "target", k.target(),
+                                                        "direction", k.direction())
+                                                  .publishPercentileHistogram()
+                                                  .register(registry))
+         .record(count);
+  }
+
+  private Timer timer(String system, String target, String operation, Throwable failure) {
+    String exception = failure == null ? "none" : failure.getClass().getSimpleName();
+    return timers.computeIfAbsent(new TimerKey(system, target, operation, exception),
+                                  k -> Timer.builder("upstream.calls")
+                                            .description("Calls to backing services")
+                                            .tags("system", k.system(), "target", k.target(),
+                                                  "operation", k.operation(),
+                                                  "outcome", k.exception().equals("none") ? "success" : "error",
+                                                  "exception", k.exception())
+                                            .publishPercentileHistogram()
+                                            .publishPercentiles(0.5, 0.95, 0.99)
+                                            .register(registry));
+  }
+
+  private AtomicInteger inFlight(String system, String target) {
+    return inFlight.computeIfAbsent(new Target(system, target), k -> {
+      AtomicInteger count = new AtomicInteger();
+      Gauge.builder("upstream.in_flight", count, AtomicInteger::get)
+           .description("Upstream calls started and not yet finished")
+           .tags("system", k.system(), "target", k.target())
+           .register(registry);
+      return count;
+    });
+  }
+
+  /**
+   * A call to a backing service that may throw a checked exception.
+   */
+  @FunctionalInterface
+  public interface UpstreamCall<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  private record Target(String system, String target) {}
+
+  private record TimerKey(String system, String target, String operation, String exception) {}
+
+  private record BytesKey(String system, String target, String direction) {}
+}
@@ -0,0 +1,87 @@
+package com.base.demo.repository;
+
+import com.base.demo.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in the customers listing, which is ordered by {@code createdAt} and then by document id (both
+ * descending). A page starts right after the cursor of the previous page's last customer.
+ * <p>
+ * Clients only ever see the opaque {@link #encode() token}; its format is an implementation detail.
+ *
+ * @param createdAt the {@code createdAt} of the last customer returned; {@code null} for a document whose
+ *                  {@code createdAt} is null, which Firestore sorts last in descending order
+ * @param id        the document id of the last customer returned
+ */
+public record CustomerCursor(Instant createdAt, String id) {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  /**
+   * Encodes this cursor as an opaque, URL-safe page token.
+   *
+   * @return the page token
+   */
+  public String encode() {
+    String position = (createdAt == null) ? "" : createdAt.getEpochSecond() + "." + createdAt.getNano();
+    String raw = position + ":" + id;
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a page token produced by {@link #encode()}.
+   *
+   * @param token the page token sent by the client
+   *
+   * @return the decoded cursor
+   *
+   * @throws BadRequestException if the token is malformed, its position is not a valid Firestore timestamp or its id
+   *     is not a valid document id
+   */
+  public static CustomerCursor decode(String token) {
+    try {
+      String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+      int colon = raw.indexOf(':');
+      if (colon < 0) {
+        throw new BadRequestException("Invalid page token");
+      }
+      String id = raw.substring(colon + 1);
+      if (!isValidDocumentId(id)) {
+        throw new BadRequestException("Invalid page token");
+      }
+      if (colon == 0) {
+        return new CustomerCursor(null, id);
+      }
+      int dot = raw.indexOf('.');
+      if (dot < 0 || dot > colon) {
+        throw new BadRequestException("Invalid page token");
+      }
+      long seconds = Long.parseLong(raw.substring(0, dot));
+      long nanos = Long.parseLong(raw.substring(dot + 1, colon));
+      if (nanos < 0 || nanos > 999_999_999) {
+        throw new BadRequestException("Invalid page token");
+      }
+      Instant createdAt = Instant.ofEpochSecond(seconds, nanos);
+      CustomerDocuments.toTimestamp(createdAt); // años 1 a 9999: que falle aquí y no en la query
+      return new CustomerCursor(createdAt, id);
+    } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+      throw new BadRequestException("Invalid page token");
+    }
+  }
+
+  /**
+   * Firestore's document id rules: non-empty, at most 1500 bytes, no {@code /}, not {@code .} or {@code ..} and not
+   * of the reserved form {@code __.*__}. Anything else would make {@code startAfter} throw.
+   */
+  private static boolean isValidDocumentId(String id) {
+    return !id.isEmpty()
+        && id.getBytes(StandardCharsets.UTF_8).length <= 1500
+        && id.indexOf('/') < 0
+        && !id.equals(".") && !id.equals("..")
+        && !(id.length() >= 4 && id.startsWith("__") && id.endsWith("__"));
+  }
+}
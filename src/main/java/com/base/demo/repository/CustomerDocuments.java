@@ -0,0 +1,116 @@
+package com.base.demo.repository;
+
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.base.demo.model.entity.Customer;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldValue;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The single mapping between customer documents and the API model.
+ * <p>
+ * Reads only ask Firestore for {@link #FIELDS} (through {@link #MASK} or {@code select}), and a snapshot is turned
+ * into a {@link CustomerResponse} with one field lookup per property and no intermediate map or POJO.
+ */
+final class CustomerDocuments {
+
+  static final String COLLECTION = "customers";
+  static final String NAME = "name";
+  static final String EMAIL = "email";
+  static final String CREATED_AT = "createdAt";
+
+  /** One document per registered email, keyed by {@link #emailKey}; makes emails unique and lookups point reads. */
+  static final String EMAILS_COLLECTION = "customer_emails";
+  static final String CUSTOMER_ID = "customerId";
+  static final FieldMask EMAIL_MASK = FieldMask.of(CUSTOMER_ID);
+
+  /** Fields a customer read needs; anything else stored in the document is never transferred. */
+  static final String[] FIELDS = {NAME, EMAIL, CREATED_AT};
+  static final FieldMask MASK = FieldMask.of(FIELDS);
+
+  private CustomerDocuments() {
+  }
+
+  static Map<String, Object> toDocument(Customer c) {
+    Map<String, Object> doc = new HashMap<>(4);
+    doc.put(NAME, c.getName());
+    doc.put(EMAIL, c.getEmail());
+    doc.put(CREATED_AT, FieldValue.serverTimestamp());
+    return doc;
+  }
+
+  /**
+   * Reservation of {@code normalizedEmail} for {@code customerId}.
+   */
+  static Map<String, Object> toReservation(String customerId, String normalizedEmail) {
+    Map<String, Object> doc = new HashMap<>(4);
+    doc.put(CUSTOMER_ID, customerId);
+    doc.put(EMAIL, normalizedEmail);
+    doc.put(CREATED_AT, FieldValue.serverTimestamp());
+    return doc;
+  }
+
+  /**
+   * Canonical form used for uniqueness and lookups: trimmed and lower-cased.
+   *
+   * @return the normalized email, or {@code null} when {@code email} is null or blank
+   */
+  static String normalizeEmail(String email) {
+    if (email == null || email.isBlank()) return null;
+    return email.strip().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Document id of the reservation of a normalized email: its SHA-256 in hex, which is always a valid id of fixed
+   * length whatever characters the address contains.
+   */
+  static String emailKey(String normalizedEmail) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalizedEmail.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  static CustomerResponse toResponse(DocumentSnapshot snap) {
+    return new CustomerResponse(
+        snap.getId(),
+        snap.getString(NAME),
+        snap.getString(EMAIL),
+        toInstant(snap.getTimestamp(CREATED_AT)),
+        toInstant(snap.getUpdateTime()) // la fija Firestore en cada escritura; base del ETag
+    );
+  }
+
+  private static Instant toInstant(Timestamp ts) {
+    return ts != null ? Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos()) : null;
+  }
+
+  static Timestamp toTimestamp(Instant instant) {
+    return Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(), instant.getNano());
+  }
+
+  /**
+   * Builds a page, with a {@code nextPageToken} pointing after its last item when the page is full.
+   */
+  static CustomerPage toPage(List<CustomerResponse> items, int size) {
+    String next = null;
+    if (items.size() == size) {
+      CustomerResponse last = items.get(items.size() - 1);
+      next = new CustomerCursor(last.createdAt(), last.id()).encode();
+    }
+    return new CustomerPage(items, next);
+  }
+}
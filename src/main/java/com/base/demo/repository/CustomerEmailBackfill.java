@@ -0,0 +1,117 @@
+package com.base.demo.repository;
+
+import com.base.demo.monitoring.UpstreamMetrics;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import static com.base.demo.monitoring.UpstreamMetrics.FIRESTORE;
+import static com.base.demo.repository.CustomerDocuments.COLLECTION;
+import static com.base.demo.repository.CustomerDocuments.EMAIL;
+import static com.base.demo.repository.CustomerDocuments.EMAILS_COLLECTION;
+import static com.base.demo.repository.FirestoreFutures.toCompletable;
+
+/**
+ * Reserves the emails of customers created before emails were unique, so that {@code GET /api/customers/by-email}
+ * finds them and new customers cannot register their addresses again.
+ * <p>
+ * Runs once on a background thread after the application is ready: it walks the whole collection in document id
+ * order, {@code app.customers.email-backfill.page-size} customers at a time and reading only the email, and creates
+ * the missing reservations through a {@link BulkWriter}. Existing reservations are left untouched, so it is safe to
+ * run again; when several legacy customers share an email the first one reserved keeps it. The outcome is logged.
+ * <p>
+ * Requires the Firestore repository. Enabled with {@code app.customers.email-backfill.enabled: true}, on a single
+ * instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.customers.email-backfill.enabled", havingValue = "true")
+public class CustomerEmailBackfill {
+
+  private final Firestore db;
+  private final UpstreamMetrics metrics;
+  private final CollectionReference emails;
+  private final Query scan;
+  private final int pageSize;
+
+  public CustomerEmailBackfill(Firestore db, UpstreamMetrics metrics,
+                               @Value("${app.customers.email-backfill.page-size:500}") int pageSize) {
+    this.db = db;
+    this.metrics = metrics;
+    this.emails = db.collection(EMAILS_COLLECTION);
+    this.scan = db.collection(COLLECTION).select(EMAIL).orderBy(FieldPath.documentId()).limit(pageSize);
+    this.pageSize = pageSize;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    Thread.ofPlatform().name("customer-email-backfill").daemon().start(() -> {
+      try {
+        run();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        log.error("Customer email backfill failed; it can be re-run safely", e);
+      }
+    });
+  }
+
+  private void run() throws InterruptedException, ExecutionException {
+    long scanned = 0;
+    long created = 0;
+    long existing = 0;
+    long failed = 0;
+    BulkWriter writer = db.bulkWriter();
+    try {
+      QueryDocumentSnapshot last = null;
+      List<QueryDocumentSnapshot> docs;
+      do {
+        Query page = last == null ? scan : scan.startAfter(last);
+        docs = metrics.timeAsync(FIRESTORE, COLLECTION, "bulkScan", () -> toCompletable(page.get())).get()
+                      .getDocuments();
+        List<ApiFuture<WriteResult>> writes = new ArrayList<>(docs.size());
+        for (QueryDocumentSnapshot doc : docs) {
+          String email = CustomerDocuments.normalizeEmail(doc.getString(EMAIL));
+          if (email != null) {
+            writes.add(writer.create(emails.document(CustomerDocuments.emailKey(email)),
+                                     CustomerDocuments.toReservation(doc.getId(), email)));
+          }
+        }
+        metrics.timeAsync(FIRESTORE, EMAILS_COLLECTION, "bulkReserve", () -> toCompletable(writer.flush())).get();
+        for (ApiFuture<WriteResult> write : writes) {
+          try {
+            write.get();
+            created++;
+          } catch (ExecutionException e) {
+            if (FirestoreCustomerRepository.isAlreadyExists(e)) {
+              existing++;
+            } else {
+              failed++;
+              log.warn("Could not reserve a customer email: {}", e.getCause().getMessage());
+            }
+          }
+        }
+        scanned += docs.size();
+        last = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+      } while (docs.size() == pageSize);
+    } finally {
+      writer.close();
+    }
+    log.info("Customer email backfill done: {} customers scanned, {} reservations created, {} already reserved, "
+             + "{} failed", scanned, created, existing, failed);
+  }
+}
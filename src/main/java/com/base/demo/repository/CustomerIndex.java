@@ -0,0 +1,72 @@
+package com.base.demo.repository;
+
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Customers kept in memory by id and in listing order, with the same ordering and keyset semantics as the Firestore
+ * query. Reads are lock-free and safe while another thread writes.
+ */
+final class CustomerIndex {
+
+  /** Mismo orden que la consulta de Firestore: createdAt (null al final) y luego id, descendente. */
+  private static final Comparator<CustomerCursor> NEWEST_FIRST =
+      Comparator.comparing(CustomerCursor::createdAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+                .thenComparing(CustomerCursor::id)
+                .reversed();
+
+  private final ConcurrentMap<String, CustomerResponse> byId = new ConcurrentHashMap<>();
+  private final NavigableMap<CustomerCursor, CustomerResponse> byCreatedAt = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+
+  CustomerResponse get(String id) {
+    return byId.get(id);
+  }
+
+  /**
+   * Inserts or replaces a customer.
+   */
+  void put(CustomerResponse customer) {
+    byId.compute(customer.id(), (id, previous) -> {
+      if (previous != null) {
+        byCreatedAt.remove(new CustomerCursor(previous.createdAt(), id));
+      }
+      byCreatedAt.put(new CustomerCursor(customer.createdAt(), id), customer);
+      return customer;
+    });
+  }
+
+  void remove(String id) {
+    byId.computeIfPresent(id, (key, previous) -> {
+      byCreatedAt.remove(new CustomerCursor(previous.createdAt(), key));
+      return null;
+    });
+  }
+
+  /**
+   * Returns up to {@code size} customers in listing order, starting right after {@code after}.
+   */
+  List<CustomerResponse> page(int size, CustomerCursor after) {
+    var view = (after == null) ? byCreatedAt : byCreatedAt.tailMap(after, false);
+    List<CustomerResponse> items = new ArrayList<>(size);
+    for (CustomerResponse customer : view.values()) {
+      if (items.size() == size) break;
+      items.add(customer);
+    }
+    return items;
+  }
+
+  Iterable<String> ids() {
+    return byId.keySet();
+  }
+
+  int size() {
+    return byId.size();
+  }
+}
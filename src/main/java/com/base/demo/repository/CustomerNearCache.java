@@ -0,0 +1,233 @@
+package com.base.demo.repository;
+
+import com.base.demo.cache.CustomerCache;
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.EventListener;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.stereotype.Component;
+
+import static com.base.demo.repository.CustomerDocuments.COLLECTION;
+import static com.base.demo.repository.CustomerDocuments.CREATED_AT;
+
+/**
+ * In-process copy of the newest customers, kept current by a Firestore snapshot listener so that every replica sees
+ * the writes of the others within seconds.
+ * <p>
+ * The listener watches the {@code app.customers.near-cache.max-entries} newest customers (same order as the
+ * listing), which is also the memory budget: when a customer falls out of that window Firestore reports it as
+ * removed and it is evicted. Change events also invalidate the {@link CustomerCache} entry of each changed id.
+ * <p>
+ * Point reads of ids in the window and pages that lie entirely inside it are answered from memory; anything else
+ * returns empty and the caller goes to Firestore. Nothing is served while the listener is not in sync: after a
+ * listener error it is registered again with exponential backoff ({@code app.customers.near-cache.resync-backoff})
+ * and its first snapshot is reconciled against the index, dropping customers deleted in the meantime. Changes
+ * missed outside the window are only bounded by the {@link CustomerCache} TTL.
+ * <p>
+ * The listener is registered once the application is ready, so its initial snapshot (the whole window) is not
+ * part of startup; until it arrives every read falls through to Firestore. Requires the Firestore repository.
+ * Enabled with {@code app.customers.near-cache.enabled: true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.customers.near-cache.enabled", havingValue = "true")
+public class CustomerNearCache {
+
+  private final Query window;
+  private final CustomerCache cache;
+  private final int maxEntries;
+  private final Duration minBackoff;
+  private final Duration maxBackoff;
+  private final CustomerIndex index = new CustomerIndex();
+  private final Counter resyncs;
+  /** Registrados una vez: get y page están en el camino de cada lectura. */
+  private final Counter getHits;
+  private final Counter getMisses;
+  private final Counter listHits;
+  private final Counter listMisses;
+  /** Entrega los eventos y programa los reintentos; un solo hilo, así que el índice tiene un único escritor. */
+  private final ScheduledExecutorService events =
+      Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("customer-near-cache").daemon().factory());
+
+  private volatile boolean synced;
+  private volatile boolean stopped;
+  private ListenerRegistration registration;
+  private int failures;
+
+  public CustomerNearCache(Firestore db, CustomerCache cache, MeterRegistry registry,
+                           @Value("${app.customers.near-cache.max-entries:20000}") int maxEntries,
+                           @Value("${app.customers.near-cache.resync-backoff.min:1s}") Duration minBackoff,
+                           @Value("${app.customers.near-cache.resync-backoff.max:60s}") Duration maxBackoff) {
+    this.window = db.collection(COLLECTION)
+                    .orderBy(CREATED_AT, Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                    .limit(maxEntries);
+    this.cache = cache;
+    this.maxEntries = maxEntries;
+    this.minBackoff = minBackoff;
+    this.maxBackoff = maxBackoff;
+    this.resyncs = Counter.builder("customers.near_cache.resyncs")
+                          .description("Snapshot listener re-registrations after an error")
+                          .register(registry);
+    this.getHits = requests(registry, "get", "hit");
+    this.getMisses = requests(registry, "get", "miss");
+    this.listHits = requests(registry, "list", "hit");
+    this.listMisses = requests(registry, "list", "miss");
+    Gauge.builder("customers.near_cache.size", index, CustomerIndex::size)
+         .description("Customers held in the near cache")
+         .register(registry);
+    Gauge.builder("customers.near_cache.synced", this, n -> n.synced ? 1 : 0)
+         .description("1 while the snapshot listener is in sync and reads are served from memory")
+         .register(registry);
+  }
+
+  @org.springframework.context.event.EventListener(ApplicationReadyEvent.class) // choca con el de Firestore
+  void start() {
+    events.execute(this::subscribe);
+  }
+
+  @PreDestroy
+  void stop() {
+    stopped = true;
+    events.execute(() -> {
+      if (registration != null) registration.remove();
+    });
+    events.shutdown();
+  }
+
+  /**
+   * Returns the customer when it is in the window and the listener is in sync. An empty result means "unknown here",
+   * not "does not exist".
+   *
+   * @param id the customer id
+   *
+   * @return the customer, or empty when the caller must read it from Firestore
+   */
+  public Optional<CustomerResponse> get(String id) {
+    CustomerResponse customer = synced ? index.get(id) : null;
+    (customer != null ? getHits : getMisses).increment();
+    return Optional.ofNullable(customer);
+  }
+
+  /**
+   * Returns the page when it can be answered from the window: it is full, or the whole collection fits in the window
+   * so a short page really is the last one.
+   *
+   * @param size  the page size
+   * @param after the position of the last customer of the previous page, or {@code null} for the first page
+   *
+   * @return the page, or empty when the caller must query Firestore
+   */
+  public Optional<CustomerPage> page(int size, CustomerCursor after) {
+    CustomerPage page = null;
+    if (synced) {
+      List<CustomerResponse> items = index.page(size, after);
+      if (items.size() == size || index.size() < maxEntries) {
+        page = CustomerDocuments.toPage(items, size);
+      }
+    }
+    (page != null ? listHits : listMisses).increment();
+    return Optional.ofNullable(page);
+  }
+
+  private static Counter requests(MeterRegistry registry, String operation, String result) {
+    return Counter.builder("customers.near_cache.requests")
+                  .description("Reads answered from the near cache (hit) or sent to Firestore (miss)")
+                  .tag("operation", operation)
+                  .tag("result", result)
+                  .register(registry);
+  }
+
+  private void subscribe() {
+    if (stopped) return;
+    registration = window.addSnapshotListener(events, new WindowListener());
+  }
+
+  /**
+   * Listener of one registration. Its first snapshot is the full window and replaces the index; later ones only
+   * carry changes.
+   */
+  private final class WindowListener implements EventListener<QuerySnapshot> {
+
+    private boolean first = true;
+
+    @Override
+    public void onEvent(QuerySnapshot snapshot, FirestoreException error) {
+      if (error != null) {
+        onError(error);
+        return;
+      }
+      if (first) {
+        reconcile(snapshot.getDocuments());
+        first = false;
+        failures = 0;
+        synced = true;
+        return;
+      }
+      for (DocumentChange change : snapshot.getDocumentChanges()) {
+        String id = change.getDocument().getId();
+        if (change.getType() == DocumentChange.Type.REMOVED) {
+          index.remove(id);
+        } else {
+          index.put(CustomerDocuments.toResponse(change.getDocument()));
+        }
+        cache.invalidate(id);
+      }
+    }
+  }
+
+  private void reconcile(List<QueryDocumentSnapshot> docs) {
+    Map<String, CustomerResponse> current = new HashMap<>(docs.size() * 2);
+    for (QueryDocumentSnapshot doc : docs) {
+      current.put(doc.getId(), CustomerDocuments.toResponse(doc));
+    }
+    for (String id : index.ids()) {
+      if (!current.containsKey(id)) {
+        index.remove(id); // borrado o fuera de la ventana mientras no escuchábamos
+        cache.invalidate(id);
+      }
+    }
+    for (CustomerResponse customer : current.values()) {
+      CustomerResponse previous = index.get(customer.id());
+      if (previous == null || !Objects.equals(previous.updatedAt(), customer.updatedAt())) {
+        index.put(customer);
+        cache.invalidate(customer.id());
+      }
+    }
+  }
+
+  private void onError(FirestoreException error) {
+    synced = false;
+    if (registration != null) registration.remove();
+    if (stopped) return;
+    long backoff = Math.min(maxBackoff.toMillis(), minBackoff.toMillis() << Math.min(failures, 20));
+    failures++;
+    resyncs.increment();
+    log.warn("Customer near cache listener failed, resyncing in {} ms", backoff, error);
+    events.schedule(this::subscribe, backoff, TimeUnit.MILLISECONDS);
+  }
+}
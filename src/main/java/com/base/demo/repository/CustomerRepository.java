@@ -1,48 +1,91 @@
 package com.base.demo.repository;
 
+import com.base.demo.exception.EntityConflictException;
+import com.base.demo.model.DTO.customer.CustomerPage;
 import com.base.demo.model.DTO.customer.CustomerResponse;
 import com.base.demo.model.entity.Customer;
-import com.google.cloud.firestore.Firestore;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Repository;
-
-import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Owns every access to the {@code customers} collection.
+ * <p>
+ * {@link FirestoreCustomerRepository} is the production implementation; {@link InMemoryCustomerRepository} keeps
+ * the same contract in memory for local runs and benchmarks. The implementation is chosen with
+ * {@code app.customers.repository} ({@code firestore} or {@code memory}).
+ */
+public interface CustomerRepository {
 
-@Repository
-@RequiredArgsConstructor
-public class CustomerRepository {
-  private static final String COLLECTION = "customers";
-  private final Firestore db;
+  /**
+   * Writes a customer without blocking. When it has an email, the email is reserved atomically with the write, so
+   * two customers can never share one (compared trimmed and case-insensitively).
+   *
+   * @param c the customer; a random id is assigned when it has none
+   *
+   * @return a future completed with the customer id once the write is committed, or failed with
+   *     {@link EntityConflictException} when the email is already registered
+   */
+  CompletableFuture<String> saveAsync(Customer c);
 
-  public String save(Customer c) throws Exception {
-    String id = (c.getId() != null) ? c.getId() : UUID.randomUUID().toString();
+  /**
+   * Writes many customers. Every customer must already have an id. Blocks until all writes have finished. Each
+   * customer with an email is only written once its reservation is, like {@link #saveAsync}; a duplicate email only
+   * fails that customer.
+   *
+   * @param customers the customers to write
+   *
+   * @return the error message of each customer that could not be written, keyed by id; empty if all succeeded
+   */
+  Map<String, String> saveAll(List<Customer> customers) throws InterruptedException, ExecutionException;
 
-    Map<String, Object> doc = Map.of(
-        "name", c.getName(),
-        "email", c.getEmail(),
-        "createdAt", com.google.cloud.firestore.FieldValue.serverTimestamp()
-    );
+  /**
+   * Reads a customer without blocking.
+   *
+   * @param id the customer id
+   *
+   * @return a future completed with the customer, or an empty Optional if it does not exist
+   */
+  CompletableFuture<Optional<CustomerResponse>> findByIdAsync(String id);
 
-    db.collection(COLLECTION).document(id).set(doc).get();
-    return id;
+  default Optional<CustomerResponse> findById(String id) throws InterruptedException, ExecutionException {
+    return findByIdAsync(id).get();
   }
 
-  public Optional<CustomerResponse> findById(String id) throws Exception {
-    var snap = db.collection(COLLECTION).document(id).get().get();
-    if (!snap.exists()) return Optional.empty();
+  /**
+   * Resolves an email to the id of the customer that registered it, with a single point read.
+   *
+   * @param email the email, in any case and with or without surrounding spaces
+   *
+   * @return a future completed with the customer id, or an empty Optional if no customer has that email
+   */
+  CompletableFuture<Optional<String>> findIdByEmailAsync(String email);
+
+  /**
+   * Reads many customers in a single round trip.
+   *
+   * @param ids the ids to read, without duplicates
+   *
+   * @return one entry per id; empty Optionals for ids that do not exist
+   */
+  Map<String, Optional<CustomerResponse>> findAllById(Collection<String> ids)
+      throws InterruptedException, ExecutionException;
 
-    var ts = snap.getTimestamp("createdAt");
-    Instant created = (ts != null) ? Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos()) : null;
+  /**
+   * Reads one page of customers ordered by {@code createdAt} and id, newest first, starting right after
+   * {@code after}. Every page costs the same no matter how deep it is.
+   *
+   * @param size  the maximum number of customers to return
+   * @param after the position of the last customer of the previous page, or {@code null} for the first page
+   *
+   * @return a future completed with the page; {@code nextPageToken} is set when the page is full
+   */
+  CompletableFuture<CustomerPage> findPageAsync(int size, CustomerCursor after);
 
-    var c = new CustomerResponse(
-        snap.getId(),
-        snap.getString("name"),
-        snap.getString("email"),
-        created
-    );
-    return Optional.of(c);
+  default CustomerPage findPage(int size, CustomerCursor after) throws InterruptedException, ExecutionException {
+    return findPageAsync(size, after).get();
   }
 }
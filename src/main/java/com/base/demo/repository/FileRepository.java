@@ -0,0 +1,47 @@
+package com.base.demo.repository;
+
+import com.base.demo.model.DTO.file.UploadedFile;
+import com.base.demo.monitoring.UpstreamMetrics;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.base.demo.monitoring.UpstreamMetrics.FIRESTORE;
+import static com.base.demo.repository.FirestoreFutures.toCompletable;
+
+/**
+ * Metadata of uploaded objects, one document per object in the {@code files} collection.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FileRepository {
+  private static final String COLLECTION = "files";
+  private final Firestore db;
+  private final UpstreamMetrics metrics;
+
+  /**
+   * Records (or overwrites) the metadata of an object. The document id is derived from the object name, so
+   * recording the same object twice is idempotent.
+   */
+  public void save(UploadedFile file) throws Exception {
+    Map<String, Object> doc = new HashMap<>();
+    doc.put("bucket", file.bucket());
+    doc.put("object", file.object());
+    doc.put("contentType", file.contentType());
+    doc.put("size", file.size());
+    doc.put("crc32c", file.crc32c());
+    doc.put("md5", file.md5());
+    doc.put("createdAt", FieldValue.serverTimestamp());
+
+    String id = Base64.getUrlEncoder().withoutPadding()
+                      .encodeToString(file.object().getBytes(StandardCharsets.UTF_8));
+    metrics.timeAsync(FIRESTORE, COLLECTION, "set",
+                      () -> toCompletable(db.collection(COLLECTION).document(id).set(doc))).get();
+  }
+}
@@ -0,0 +1,270 @@
+package com.base.demo.repository;
+
+import com.base.demo.exception.EntityConflictException;
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.base.demo.model.entity.Customer;
+import com.base.demo.monitoring.RequestTimings;
+import com.base.demo.monitoring.UpstreamMetrics;
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static com.base.demo.monitoring.UpstreamMetrics.FIRESTORE;
+import static com.base.demo.repository.CustomerDocuments.COLLECTION;
+import static com.base.demo.repository.CustomerDocuments.CREATED_AT;
+import static com.base.demo.repository.CustomerDocuments.CUSTOMER_ID;
+import static com.base.demo.repository.CustomerDocuments.EMAILS_COLLECTION;
+import static com.base.demo.repository.CustomerDocuments.EMAIL_MASK;
+import static com.base.demo.repository.CustomerDocuments.FIELDS;
+import static com.base.demo.repository.CustomerDocuments.MASK;
+import static com.base.demo.repository.FirestoreFutures.toCompletable;
+
+/**
+ * {@link CustomerRepository} backed by the Firestore {@code customers} collection. Point reads, batch reads and
+ * queries only fetch the fields in {@link CustomerDocuments#FIELDS}. Every call is timed through
+ * {@link UpstreamMetrics}.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.customers.repository", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreCustomerRepository implements CustomerRepository {
+
+  private final Firestore db;
+  private final UpstreamMetrics metrics;
+  private final CollectionReference customers;
+  private final CollectionReference emails;
+  private final int bulkInitialOpsPerSecond;
+  private final int bulkMaxOpsPerSecond;
+
+  public FirestoreCustomerRepository(Firestore db, UpstreamMetrics metrics,
+                                     @Value("${app.customers.bulk.initial-ops-per-second:500}") int initialOps,
+                                     @Value("${app.customers.bulk.max-ops-per-second:10000}") int maxOps) {
+    this.db = db;
+    this.metrics = metrics;
+    this.customers = db.collection(COLLECTION);
+    this.emails = db.collection(EMAILS_COLLECTION);
+    this.bulkInitialOpsPerSecond = initialOps;
+    this.bulkMaxOpsPerSecond = maxOps;
+  }
+
+  /**
+   * A customer with an email is committed in one {@link WriteBatch} with the {@code create} of its reservation, so
+   * the batch fails as a whole with {@code ALREADY_EXISTS} when the email is taken. One round trip and no reads, so
+   * unlike a read-write transaction it never contends or retries.
+   */
+  @Override
+  public CompletableFuture<String> saveAsync(Customer c) {
+    String id = (c.getId() != null) ? c.getId() : UUID.randomUUID().toString();
+    if (CustomerDocuments.normalizeEmail(c.getEmail()) == null) {
+      return timed("set", () -> toCompletable(customers.document(id).set(CustomerDocuments.toDocument(c))))
+          .thenApply(r -> id);
+    }
+    return timed("reserveAndSet", () -> toCompletable(reserveAndSet(id, c))).handle((r, ex) -> {
+      if (ex == null) return id;
+      if (isAlreadyExists(ex)) {
+        throw new EntityConflictException("Customer with email %s already exists".formatted(c.getEmail()));
+      }
+      throw ex instanceof CompletionException ce ? ce : new CompletionException(ex);
+    });
+  }
+
+  /**
+   * Writes everything through one Firestore {@link BulkWriter}, which batches and parallelizes the writes and retries
+   * the retryable failures ({@code UNAVAILABLE}, {@code ABORTED}, {@code RESOURCE_EXHAUSTED}, ...) with backoff.
+   * Customers with an email take two steps: first the {@code create} of every reservation, then the {@code set} of
+   * the customers whose reservation succeeded, so a taken email ({@code ALREADY_EXISTS}) fails only its own customer.
+   * Unlike the {@link WriteBatch} of {@link #saveAsync} the pair is not atomic: when a customer write still fails
+   * after the retries its reservation is deleted again, best effort.
+   */
+  @Override
+  public Map<String, String> saveAll(List<Customer> batch) throws InterruptedException, ExecutionException {
+    Map<String, String> failures = new HashMap<>();
+    BulkWriter writer = db.bulkWriter(BulkWriterOptions.builder()
+                                                       .setInitialOpsPerSecond(bulkInitialOpsPerSecond)
+                                                       .setMaxOpsPerSecond(bulkMaxOpsPerSecond)
+                                                       .build());
+    try {
+      List<Customer> reserved = new ArrayList<>(batch.size());
+      List<Pending> reservations = new ArrayList<>();
+      for (Customer c : batch) {
+        String email = CustomerDocuments.normalizeEmail(c.getEmail());
+        if (email == null) {
+          reserved.add(c);
+        } else {
+          Map<String, Object> doc = CustomerDocuments.toReservation(c.getId(), email);
+          reservations.add(new Pending(c, writer.create(reservation(email), doc)));
+        }
+      }
+      if (!reservations.isEmpty()) {
+        flush(writer, "bulkReserve");
+        for (Pending r : reservations) {
+          String error = failure(r.write());
+          if (error == null) {
+            reserved.add(r.customer());
+          } else {
+            failures.put(r.customer().getId(), error);
+          }
+        }
+      }
+
+      List<Pending> writes = new ArrayList<>(reserved.size());
+      for (Customer c : reserved) {
+        writes.add(new Pending(c, writer.set(customers.document(c.getId()), CustomerDocuments.toDocument(c))));
+      }
+      flush(writer, "bulkWrite");
+      List<DocumentReference> orphans = new ArrayList<>();
+      for (Pending w : writes) {
+        String error = failure(w.write());
+        if (error != null) {
+          failures.put(w.customer().getId(), error);
+          String email = CustomerDocuments.normalizeEmail(w.customer().getEmail());
+          if (email != null) orphans.add(reservation(email));
+        }
+      }
+      if (!orphans.isEmpty()) {
+        orphans.forEach(writer::delete); // libera el email; si falla queda reservado para un id inexistente
+        flush(writer, "bulkRelease");
+      }
+    } finally {
+      writer.close(); // envía lo pendiente (nada si flush terminó) y espera a que termine
+    }
+    return failures;
+  }
+
+  /** Terminates once every write enqueued so far has been attempted, whether it failed or not. */
+  private void flush(BulkWriter writer, String operation) throws InterruptedException, ExecutionException {
+    timed(operation, () -> toCompletable(writer.flush())).get();
+  }
+
+  /** The error message of a finished bulk write, or {@code null} if it succeeded. */
+  private static String failure(ApiFuture<WriteResult> write) throws InterruptedException {
+    try {
+      write.get();
+      return null;
+    } catch (ExecutionException e) {
+      return isAlreadyExists(e) ? "Email already registered" : String.valueOf(e.getCause().getMessage());
+    }
+  }
+
+  private DocumentReference reservation(String normalizedEmail) {
+    return emails.document(CustomerDocuments.emailKey(normalizedEmail));
+  }
+
+  private record Pending(Customer customer, ApiFuture<WriteResult> write) {}
+
+  private ApiFuture<List<WriteResult>> reserveAndSet(String id, Customer c) {
+    String email = CustomerDocuments.normalizeEmail(c.getEmail());
+    WriteBatch batch = db.batch();
+    batch.create(reservation(email), CustomerDocuments.toReservation(id, email));
+    batch.set(customers.document(id), CustomerDocuments.toDocument(c));
+    return batch.commit();
+  }
+
+  static boolean isAlreadyExists(Throwable ex) {
+    for (Throwable t = ex; t != null; t = t.getCause()) {
+      if (t instanceof ApiException api && api.getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS) {
+        return true;
+      }
+      if (t instanceof StatusRuntimeException grpc && grpc.getStatus().getCode() == Status.Code.ALREADY_EXISTS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public CompletableFuture<Optional<CustomerResponse>> findByIdAsync(String id) {
+    RequestTimings timings = RequestTimings.current();
+    // getAll con máscara: una lectura puntual que solo trae los campos proyectados
+    return timed("get", () -> toCompletable(db.getAll(new DocumentReference[] {customers.document(id)}, MASK)))
+        .thenApply(snaps -> timings.time("mapping", () -> {
+          DocumentSnapshot snap = snaps.get(0);
+          return snap.exists() ? Optional.of(CustomerDocuments.toResponse(snap)) : Optional.empty();
+        }));
+  }
+
+  @Override
+  public CompletableFuture<Optional<String>> findIdByEmailAsync(String email) {
+    String normalized = CustomerDocuments.normalizeEmail(email);
+    if (normalized == null) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    DocumentReference reservation = emails.document(CustomerDocuments.emailKey(normalized));
+    return timed("getByEmail", () -> toCompletable(db.getAll(new DocumentReference[] {reservation}, EMAIL_MASK)))
+        .thenApply(snaps -> Optional.ofNullable(snaps.get(0).exists() ? snaps.get(0).getString(CUSTOMER_ID) : null));
+  }
+
+  @Override
+  public Map<String, Optional<CustomerResponse>> findAllById(Collection<String> ids)
+      throws InterruptedException, ExecutionException {
+    DocumentReference[] refs = new DocumentReference[ids.size()];
+    int i = 0;
+    for (String id : ids) {
+      refs[i++] = customers.document(id);
+    }
+    List<DocumentSnapshot> snaps = timed("getAll", () -> toCompletable(db.getAll(refs, MASK))).get();
+    return RequestTimings.current().time("mapping", () -> {
+      Map<String, Optional<CustomerResponse>> result = new HashMap<>(ids.size() * 2);
+      for (DocumentSnapshot snap : snaps) {
+        result.put(snap.getId(), snap.exists() ? Optional.of(CustomerDocuments.toResponse(snap)) : Optional.empty());
+      }
+      return result;
+    });
+  }
+
+  @Override
+  public CompletableFuture<CustomerPage> findPageAsync(int size, CustomerCursor after) {
+    Query query = customers.select(FIELDS)
+                           .orderBy(CREATED_AT, Query.Direction.DESCENDING)
+                           .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                           .limit(size);
+    if (after != null) {
+      Timestamp createdAt = after.createdAt() == null ? null : CustomerDocuments.toTimestamp(after.createdAt());
+      query = query.startAfter(createdAt, after.id());
+    }
+
+    Query page = query;
+    RequestTimings timings = RequestTimings.current();
+    return timed("query", () -> toCompletable(page.get())).thenApply(snapshot -> timings.time("mapping", () -> {
+      List<QueryDocumentSnapshot> docs = snapshot.getDocuments();
+      List<CustomerResponse> items = new ArrayList<>(docs.size());
+      for (QueryDocumentSnapshot doc : docs) {
+        items.add(CustomerDocuments.toResponse(doc));
+      }
+      return CustomerDocuments.toPage(items, size);
+    }));
+  }
+
+  private <T> CompletableFuture<T> timed(String operation, Supplier<CompletableFuture<T>> call) {
+    return metrics.timeAsync(FIRESTORE, COLLECTION, operation, call);
+  }
+}
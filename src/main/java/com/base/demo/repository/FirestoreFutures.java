@@ -0,0 +1,48 @@
+package com.base.demo.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bridges the Google client's {@link ApiFuture} to {@link CompletableFuture} without parking a thread.
+ */
+public final class FirestoreFutures {
+
+  private FirestoreFutures() {
+  }
+
+  /**
+   * Returns a {@link CompletableFuture} completed with the outcome of {@code future}. The completion runs on the
+   * thread that completes {@code future} (the client's transport executor), so dependent stages should stay cheap.
+   * Cancelling the returned future cancels {@code future}.
+   *
+   * @param future the client future
+   * @param <T>    the result type
+   *
+   * @return the adapted future
+   */
+  public static <T> CompletableFuture<T> toCompletable(ApiFuture<T> future) {
+    CompletableFuture<T> result = new CompletableFuture<>() {
+      @Override
+      public boolean cancel(boolean mayInterruptIfRunning) {
+        future.cancel(mayInterruptIfRunning);
+        return super.cancel(mayInterruptIfRunning);
+      }
+    };
+    ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+      @Override
+      public void onFailure(Throwable t) {
+        result.completeExceptionally(t);
+      }
+
+      @Override
+      public void onSuccess(T value) {
+        result.complete(value);
+      }
+    }, MoreExecutors.directExecutor());
+    return result;
+  }
+}
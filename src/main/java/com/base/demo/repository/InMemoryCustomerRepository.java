@@ -0,0 +1,91 @@
+package com.base.demo.repository;
+
+import com.base.demo.exception.EntityConflictException;
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import com.base.demo.model.entity.Customer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link CustomerRepository} kept in memory, with the same ordering and paging semantics as Firestore. Meant for
+ * local runs, tests and benchmarks where the data store should not be part of the measurement.
+ * Enabled with {@code app.customers.repository: memory}.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.customers.repository", havingValue = "memory")
+public class InMemoryCustomerRepository implements CustomerRepository {
+
+  private final CustomerIndex index = new CustomerIndex();
+  /** Email normalizado → id, el equivalente de la colección de reservas. */
+  private final ConcurrentMap<String, String> emails = new ConcurrentHashMap<>();
+
+  @Override
+  public CompletableFuture<String> saveAsync(Customer c) {
+    String id = (c.getId() != null) ? c.getId() : UUID.randomUUID().toString();
+    if (!reserve(c.getEmail(), id)) {
+      return CompletableFuture.failedFuture(
+          new EntityConflictException("Customer with email %s already exists".formatted(c.getEmail())));
+    }
+    Instant now = Instant.now();
+    index.put(new CustomerResponse(id, c.getName(), c.getEmail(), now, now));
+    return CompletableFuture.completedFuture(id);
+  }
+
+  @Override
+  public Map<String, String> saveAll(List<Customer> customers) {
+    Map<String, String> failures = new HashMap<>();
+    for (Customer c : customers) {
+      if (!reserve(c.getEmail(), c.getId())) {
+        failures.put(c.getId(), "Email already registered");
+        continue;
+      }
+      Instant now = Instant.now();
+      index.put(new CustomerResponse(c.getId(), c.getName(), c.getEmail(), now, now));
+    }
+    return failures;
+  }
+
+  private boolean reserve(String email, String id) {
+    String normalized = CustomerDocuments.normalizeEmail(email);
+    if (normalized == null) return true;
+    String owner = emails.putIfAbsent(normalized, id);
+    return owner == null || owner.equals(id);
+  }
+
+  @Override
+  public CompletableFuture<Optional<String>> findIdByEmailAsync(String email) {
+    String normalized = CustomerDocuments.normalizeEmail(email);
+    return CompletableFuture.completedFuture(Optional.ofNullable(normalized == null ? null : emails.get(normalized)));
+  }
+
+  @Override
+  public CompletableFuture<Optional<CustomerResponse>> findByIdAsync(String id) {
+    return CompletableFuture.completedFuture(Optional.ofNullable(index.get(id)));
+  }
+
+  @Override
+  public Map<String, Optional<CustomerResponse>> findAllById(Collection<String> ids) {
+    Map<String, Optional<CustomerResponse>> result = new HashMap<>(ids.size() * 2);
+    for (String id : ids) {
+      result.put(id, Optional.ofNullable(index.get(id)));
+    }
+    return result;
+  }
+
+  @Override
+  public CompletableFuture<CustomerPage> findPageAsync(int size, CustomerCursor after) {
+    return CompletableFuture.completedFuture(CustomerDocuments.toPage(index.page(size, after), size));
+  }
+}
@@ -1,5 +1,6 @@
 package com.base.demo.security;
 
+import com.base.demo.monitoring.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,7 +32,7 @@ public class BearerTokenAuthFilter extends OncePerRequestFilter {
     String header = req.getHeader("Authorization");
     if (header != null && header.startsWith("Bearer ")) {
       String token = header.substring(7);
-      Optional<GisIdTokenVerifier.UserInfo> user = verifier.verify(token);
+      Optional<GisIdTokenVerifier.UserInfo> user = RequestTimings.of(req).time("auth", () -> verifier.verify(token));
       if (user.isPresent()) {
         Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
         var auth = new UsernamePasswordAuthenticationToken(user.get().email(), null, authorities);
@@ -50,6 +51,7 @@ public class BearerTokenAuthFilter extends OncePerRequestFilter {
     String uri = request.getRequestURI();
     return uri.startsWith("/public/")
         || uri.equals("/actuator/health")
+        || uri.startsWith("/actuator/health/")
         || uri.startsWith("/v3/api-docs")
         || uri.startsWith("/swagger-ui");
   }
@@ -1,38 +1,172 @@
 package com.base.demo.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Verifies Google ID tokens and caches the outcome.
+ * <p>
+ * Verification is purely in-memory: the signature is checked against the keys held by {@link SigningKeyManager},
+ * which are refreshed in the background, and then issuer, audience and expiry are checked.
+ * <p>
+ * Verified tokens are cached until their {@code exp} claim, so a client reusing its token only pays the RSA
+ * signature check once. Definitive rejections (malformed token, bad signature, wrong issuer or audience, expired)
+ * are cached for {@code app.auth.token-cache.negative-ttl}. A token whose key is not in the current set (unknown
+ * {@code kid}, or keys not loaded yet) is rejected without caching and asks {@link SigningKeyManager} for an early
+ * refresh, so a key rotation does not lock valid tokens out for the negative TTL. Entries are keyed by the SHA-256
+ * of the raw token, never by the token itself. Cache meters are published with tag {@code cache=idTokens}.
+ */
 @Component
 public class GisIdTokenVerifier {
 
-  private final GoogleIdTokenVerifier verifier;
+  /** Clock skew tolerated when checking exp/iat; same default as GoogleIdTokenVerifier. */
+  private static final long ACCEPTABLE_TIME_SKEW_SECONDS = 300;
 
-  public GisIdTokenVerifier(GoogleIdTokenVerifier verifier) {
-    this.verifier = verifier;
+  private final SigningKeyManager keys;
+  private final List<String> audience;
+  private final List<String> issuers;
+  private final Cache<String, Optional<UserInfo>> cache;
+
+  @Autowired
+  public GisIdTokenVerifier(SigningKeyManager keys, MeterRegistry registry,
+                            @Value("${google.client-id}") String clientId,
+                            @Value("${app.auth.issuers:https://accounts.google.com}") List<String> issuers,
+                            @Value("${app.auth.token-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${app.auth.token-cache.negative-ttl:30s}") Duration negativeTtl) {
+    this(keys, registry, clientId, issuers, maximumSize, negativeTtl, Ticker.systemTicker());
+  }
+
+  GisIdTokenVerifier(SigningKeyManager keys, MeterRegistry registry, String clientId, List<String> issuers,
+                     long maximumSize, Duration negativeTtl, Ticker ticker) {
+    this.keys = keys;
+    this.audience = List.of(clientId);
+    this.issuers = List.copyOf(issuers);
+    this.cache = Caffeine.newBuilder()
+                         .maximumSize(maximumSize)
+                         .expireAfter(new TokenExpiry(negativeTtl.toNanos()))
+                         .ticker(ticker)
+                         .recordStats()
+                         .build();
+    CaffeineCacheMetrics.monitor(registry, cache, "idTokens");
   }
 
   public Optional<UserInfo> verify(String idToken) {
     try {
-      GoogleIdToken token = verifier.verify(idToken);
-      if (token == null) return Optional.empty();
+      return cache.get(hash(idToken), key -> doVerify(idToken));
+    } catch (KeyNotLoadedException e) {
+      keys.refreshSoon(); // Caffeine no guarda nada si el loader lanza
+      return Optional.empty();
+    }
+  }
+
+  private Optional<UserInfo> doVerify(String idToken) {
+    try {
+      GoogleIdToken token = GoogleIdToken.parse(GsonFactory.getDefaultInstance(), idToken);
+      if (!token.verifyIssuer(issuers)
+          || !token.verifyAudience(audience)
+          || !token.verifyTime(System.currentTimeMillis(), ACCEPTABLE_TIME_SKEW_SECONDS)
+          || !verifySignature(token)) {
+        return Optional.empty();
+      }
       Payload p = token.getPayload();
       return Optional.of(new UserInfo(
           (String) p.get("sub"),
           (String) p.get("email"),
           (String) p.get("name"),
           (String) p.get("picture"),
+          p.getExpirationTimeSeconds(),
           p));
-    } catch (GeneralSecurityException | IOException e) {
+    } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
       return Optional.empty();
     }
   }
 
-  public record UserInfo(String sub, String email, String name, String picture, Map<String, Object> claims) {}
+  private boolean verifySignature(GoogleIdToken token) throws GeneralSecurityException {
+    String keyId = token.getHeader().getKeyId();
+    Optional<PublicKey> key = keys.key(keyId);
+    if (key.isPresent()) {
+      return token.verifySignature(key.get());
+    }
+    if (keyId != null) {
+      throw new KeyNotLoadedException(); // kid desconocido: no probamos el resto de claves
+    }
+    Collection<PublicKey> candidates = keys.keys();
+    if (candidates.isEmpty()) {
+      throw new KeyNotLoadedException();
+    }
+    for (PublicKey candidate : candidates) {
+      if (token.verifySignature(candidate)) return true;
+    }
+    return false;
+  }
+
+  private static String hash(String idToken) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(idToken.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  public record UserInfo(String sub, String email, String name, String picture, Long expiresAtSeconds,
+                         Map<String, Object> claims) {}
+
+  /**
+   * The token is signed with a key the current set does not have; not a definitive rejection.
+   */
+  private static final class KeyNotLoadedException extends RuntimeException {
+
+    KeyNotLoadedException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Keeps verified tokens until their {@code exp} claim and rejected tokens for a fixed, short time.
+   */
+  private record TokenExpiry(long negativeTtlNanos) implements Expiry<String, Optional<UserInfo>> {
+
+    @Override
+    public long expireAfterCreate(String key, Optional<UserInfo> value, long currentTime) {
+      if (value.isEmpty() || value.get().expiresAtSeconds() == null) {
+        return negativeTtlNanos;
+      }
+      long remainingMillis = TimeUnit.SECONDS.toMillis(value.get().expiresAtSeconds()) - System.currentTimeMillis();
+      return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Optional<UserInfo> value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Optional<UserInfo> value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
 }
@@ -0,0 +1,75 @@
+package com.base.demo.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SigningKeySource} that reads X.509 certificates in Google's {@code oauth2/v1/certs} format (a JSON object
+ * of key id to PEM certificate) and honours the {@code Cache-Control: max-age} and {@code Age} response headers.
+ */
+public class GoogleCertsKeySource implements SigningKeySource {
+
+  private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+  private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final URI certsUrl;
+  private final ObjectMapper objectMapper;
+  private final HttpClient http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+  public GoogleCertsKeySource(URI certsUrl, ObjectMapper objectMapper) {
+    this.certsUrl = certsUrl;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public SigningKeys fetch() throws IOException, GeneralSecurityException {
+    HttpRequest request = HttpRequest.newBuilder(certsUrl).timeout(TIMEOUT).GET().build();
+    HttpResponse<byte[]> response;
+    try {
+      response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while fetching " + certsUrl, e);
+    }
+    if (response.statusCode() != 200) {
+      throw new IOException("Unexpected status %d fetching %s".formatted(response.statusCode(), certsUrl));
+    }
+
+    Map<String, String> pems = objectMapper.readValue(response.body(), new TypeReference<>() {});
+    CertificateFactory x509 = CertificateFactory.getInstance("X.509");
+    Map<String, PublicKey> keys = new HashMap<>();
+    for (var pem : pems.entrySet()) {
+      var cert = x509.generateCertificate(new ByteArrayInputStream(pem.getValue().getBytes(StandardCharsets.US_ASCII)));
+      keys.put(pem.getKey(), cert.getPublicKey());
+    }
+    return new SigningKeys(Map.copyOf(keys), Instant.now().plus(freshness(response)));
+  }
+
+  private static Duration freshness(HttpResponse<?> response) {
+    Duration maxAge = response.headers().firstValue("Cache-Control")
+                              .map(MAX_AGE::matcher)
+                              .filter(Matcher::find)
+                              .map(m -> Duration.ofSeconds(Long.parseLong(m.group(1))))
+                              .orElse(DEFAULT_MAX_AGE);
+    long age = response.headers().firstValueAsLong("Age").orElse(0);
+    Duration remaining = maxAge.minusSeconds(age);
+    return remaining.isNegative() ? Duration.ZERO : remaining;
+  }
+}
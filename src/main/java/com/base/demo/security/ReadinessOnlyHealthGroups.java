@@ -0,0 +1,65 @@
+package com.base.demo.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.health.AdditionalHealthEndpointPath;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthEndpointGroupsPostProcessor;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leaves {@link SigningKeysHealthIndicator} out of the top-level {@code /actuator/health}, so that a failed key fetch
+ * only takes the instance out of readiness ({@code management.endpoint.health.group.readiness.include}) instead of
+ * reporting it DOWN as a whole.
+ */
+@Component
+public class ReadinessOnlyHealthGroups implements HealthEndpointGroupsPostProcessor {
+
+  static final String SIGNING_KEYS = "signingKeys";
+
+  @Override
+  public HealthEndpointGroups postProcessHealthEndpointGroups(HealthEndpointGroups groups) {
+    Map<String, HealthEndpointGroup> named = new LinkedHashMap<>();
+    for (String name : groups.getNames()) {
+      named.put(name, groups.get(name));
+    }
+    return HealthEndpointGroups.of(new WithoutSigningKeys(groups.getPrimary()), named);
+  }
+
+  private record WithoutSigningKeys(HealthEndpointGroup primary) implements HealthEndpointGroup {
+
+    @Override
+    public boolean isMember(String name) {
+      return !SIGNING_KEYS.equals(name) && primary.isMember(name);
+    }
+
+    @Override
+    public boolean showComponents(SecurityContext securityContext) {
+      return primary.showComponents(securityContext);
+    }
+
+    @Override
+    public boolean showDetails(SecurityContext securityContext) {
+      return primary.showDetails(securityContext);
+    }
+
+    @Override
+    public StatusAggregator getStatusAggregator() {
+      return primary.getStatusAggregator();
+    }
+
+    @Override
+    public HttpCodeStatusMapper getHttpCodeStatusMapper() {
+      return primary.getHttpCodeStatusMapper();
+    }
+
+    @Override
+    public AdditionalHealthEndpointPath getAdditionalPath() {
+      return primary.getAdditionalPath();
+    }
+  }
+}
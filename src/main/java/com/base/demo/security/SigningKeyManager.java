@@ -0,0 +1,136 @@
+package com.base.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the token signing keys in memory so that verification never performs I/O on a request thread.
+ * <p>
+ * Every fetch runs on a background thread: the first one is started when the bean is created (startup does not wait
+ * for it, so a build-time training run needs no network) and {@link SigningKeysHealthIndicator} keeps the instance
+ * out of readiness until it succeeds. Keys are then refreshed {@code app.auth.keys.refresh-ahead} before the source
+ * says they expire. If a refresh fails the previous key set keeps being served and the refresh is retried every
+ * {@code app.auth.keys.retry-interval}. A token signed with an unknown key id triggers an early refresh through
+ * {@link #refreshSoon()}, at most once per retry interval, so rotated keys are picked up without waiting.
+ */
+@Slf4j
+@Component
+public class SigningKeyManager {
+
+  private final SigningKeySource source;
+  private final Duration refreshAhead;
+  private final Duration retryInterval;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "signing-key-refresh");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private final AtomicLong lastAttempt = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+  private volatile SigningKeys current;
+  /** Siguiente refresco programado; solo se toca desde el hilo del scheduler. */
+  private ScheduledFuture<?> next;
+
+  public SigningKeyManager(SigningKeySource source,
+                           @Value("${app.auth.keys.refresh-ahead:10m}") Duration refreshAhead,
+                           @Value("${app.auth.keys.retry-interval:30s}") Duration retryInterval) {
+    this.source = source;
+    this.refreshAhead = refreshAhead;
+    this.retryInterval = retryInterval;
+  }
+
+  @PostConstruct
+  void start() {
+    scheduler.execute(this::refresh);
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Returns the key with the given id from the current key set.
+   *
+   * @param keyId the {@code kid} from the token header
+   *
+   * @return the key, or empty if it is unknown or no keys have been loaded yet
+   */
+  public Optional<PublicKey> key(String keyId) {
+    SigningKeys keys = current;
+    return (keys == null || keyId == null) ? Optional.empty() : Optional.ofNullable(keys.keys().get(keyId));
+  }
+
+  /**
+   * Returns every key in the current key set, for tokens that carry no {@code kid}.
+   *
+   * @return the current keys; empty if none have been loaded yet
+   */
+  public Collection<PublicKey> keys() {
+    SigningKeys keys = current;
+    return keys == null ? List.of() : keys.keys().values();
+  }
+
+  /**
+   * Whether a key set has been loaded; until then every token is rejected.
+   *
+   * @return {@code true} once the first fetch has succeeded
+   */
+  public boolean loaded() {
+    return current != null;
+  }
+
+  /**
+   * Asks for a refresh ahead of schedule, e.g. because a token names a key id the current set does not have. Ignored
+   * if a fetch was attempted less than {@code app.auth.keys.retry-interval} ago.
+   */
+  public void refreshSoon() {
+    long last = lastAttempt.get();
+    long now = System.nanoTime();
+    if (now - last >= retryInterval.toNanos() && lastAttempt.compareAndSet(last, now) && !scheduler.isShutdown()) {
+      scheduler.execute(this::refresh);
+    }
+  }
+
+  /**
+   * Fetches the key set and schedules the next fetch. Runs on the scheduler thread; tests and benchmarks call it
+   * directly to load the keys before the first verification.
+   */
+  void refresh() {
+    lastAttempt.set(System.nanoTime());
+    Duration next;
+    try {
+      SigningKeys keys = source.fetch();
+      current = keys;
+      next = Duration.between(Instant.now(), keys.expiresAt()).minus(refreshAhead);
+      if (next.compareTo(retryInterval) < 0) {
+        next = retryInterval;
+      }
+      log.debug("Loaded {} signing keys, next refresh in {}", keys.keys().size(), next);
+    } catch (Exception e) {
+      next = retryInterval;
+      log.warn("Signing key refresh failed, keeping {} cached keys; retrying in {}",
+               current == null ? 0 : current.keys().size(), next, e);
+    }
+    if (this.next != null) {
+      this.next.cancel(false); // un refresco adelantado sustituye al programado
+    }
+    if (!scheduler.isShutdown()) {
+      this.next = scheduler.schedule(this::refresh, next.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.base.demo.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Where {@link SigningKeyManager} loads signing keys from. The default implementation reads Google's published
+ * certificates; declare another bean of this type to point verification somewhere else (e.g. a local stub).
+ */
+@FunctionalInterface
+public interface SigningKeySource {
+
+  /**
+   * Fetches the current key set. Called from the key manager's background thread, never from a request thread or
+   * the startup thread.
+   *
+   * @return the current signing keys
+   */
+  SigningKeys fetch() throws IOException, GeneralSecurityException;
+}
@@ -0,0 +1,13 @@
+package com.base.demo.security;
+
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A set of token signing keys as published by the issuer.
+ *
+ * @param keys      public keys by key id ({@code kid})
+ * @param expiresAt when the issuer says this set should be refetched
+ */
+public record SigningKeys(Map<String, PublicKey> keys, Instant expiresAt) {}
@@ -0,0 +1,23 @@
+package com.base.demo.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code DOWN} until {@link SigningKeyManager} has loaded its first key set. Only part of the readiness
+ * group (see {@link ReadinessOnlyHealthGroups}), so no traffic is routed to an instance that would reject every
+ * token, while the overall health does not depend on Google's certificate endpoint.
+ */
+@Component(ReadinessOnlyHealthGroups.SIGNING_KEYS)
+@RequiredArgsConstructor
+public class SigningKeysHealthIndicator implements HealthIndicator {
+
+  private final SigningKeyManager keys;
+
+  @Override
+  public Health health() {
+    return keys.loaded() ? Health.up().build() : Health.down().withDetail("reason", "signing keys not loaded").build();
+  }
+}
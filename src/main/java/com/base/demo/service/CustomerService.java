@@ -1,65 +1,390 @@
 package com.base.demo.service;
 
+import com.base.demo.cache.CustomerCache;
 import com.base.demo.exception.BadRequestException;
 import com.base.demo.exception.DataStoreException;
+import com.base.demo.exception.EntityConflictException;
+import com.base.demo.exception.EntityValidationException;
 import com.base.demo.exception.NotFoundException;
+import com.base.demo.exception.PayloadTooLargeException;
+import com.base.demo.exception.ServiceOverloadedException;
+import com.base.demo.model.DTO.customer.BatchGetResponse;
+import com.base.demo.model.DTO.customer.BulkCreateResponse;
+import com.base.demo.model.DTO.customer.BulkCreateResult;
 import com.base.demo.model.DTO.customer.CreateCustomerRequest;
+import com.base.demo.model.DTO.customer.CustomerPage;
 import com.base.demo.model.DTO.customer.CustomerResponse;
 import com.base.demo.model.entity.Customer;
+import com.base.demo.repository.CustomerCursor;
+import com.base.demo.repository.CustomerNearCache;
 import com.base.demo.repository.CustomerRepository;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
-import java.time.Instant;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
 
-  private final Firestore db;
   private final CustomerRepository repo;
+  private final CustomerCache cache;
+  private final Optional<CustomerNearCache> nearCache;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
 
-  public String create(CreateCustomerRequest req) throws Exception {
+  @Value("${app.customers.async-timeout:5s}")
+  private Duration asyncTimeout;
+
+  @Value("${app.customers.max-page-size:100}")
+  private int maxPageSize;
+
+  @Value("${app.customers.export.page-size:500}")
+  private int exportPageSize;
+
+  @Value("${app.customers.bulk.chunk-size:500}")
+  private int bulkChunkSize;
+
+  @Value("${app.customers.bulk.max-items:100000}")
+  private int bulkMaxItems;
+
+  @Value("${app.customers.batch-get.max-ids:500}")
+  private int batchGetMaxIds;
+
+  /**
+   * Creates a customer without blocking the calling thread.
+   *
+   * @param req the customer data
+   *
+   * @return a future completed with the new id, or failed with {@link EntityConflictException} when another
+   *     customer already registered the email
+   */
+  public CompletableFuture<String> createAsync(CreateCustomerRequest req) {
     var entity = new Customer(null, req.name(), req.email(), null);
-    return repo.save(entity);
+    return withTimeout(repo.saveAsync(entity).thenApply(id -> {
+      cache.invalidate(id); // descarta un posible "not found" cacheado para este id
+      return id;
+    }));
+  }
+
+  /**
+   * Creates many customers. Each item is validated on its own; valid items are written in chunks of
+   * {@code app.customers.bulk.chunk-size} through {@link CustomerRepository#saveAll}, so at most one chunk is in
+   * flight at a time. Invalid or failed items do not abort the rest of the request; reading stops at the first
+   * malformed item or once {@code app.customers.bulk.max-items} is exceeded, and that item is reported as failed.
+   *
+   * @param requests the items to create, consumed lazily
+   *
+   * @return per-item ids and errors
+   */
+  public BulkCreateResponse bulkCreate(Iterator<CreateCustomerRequest> requests) {
+    List<BulkCreateResult> results = new ArrayList<>();
+    List<Customer> chunk = new ArrayList<>(bulkChunkSize);
+    List<Integer> chunkIndexes = new ArrayList<>(bulkChunkSize);
+
+    int index = 0;
+    while (true) {
+      CreateCustomerRequest req;
+      try {
+        if (!requests.hasNext()) break;
+        req = requests.next();
+      } catch (RuntimeException e) {
+        if (!(e.getCause() instanceof JsonProcessingException) && !(e instanceof RuntimeJsonMappingException)) {
+          throw e;
+        }
+        // línea NDJSON ilegible: no se puede seguir leyendo el stream de forma fiable
+        results.add(new BulkCreateResult(index, null, "Malformed JSON item"));
+        break;
+      }
+      if (index >= bulkMaxItems) {
+        results.add(new BulkCreateResult(index, null,
+                                         "Bulk requests are limited to %d items".formatted(bulkMaxItems)));
+        break;
+      }
+
+      String error = validate(req);
+      if (error != null) {
+        results.add(new BulkCreateResult(index, null, error));
+      } else {
+        chunk.add(new Customer(UUID.randomUUID().toString(), req.name(), req.email(), null));
+        chunkIndexes.add(index);
+        if (chunk.size() == bulkChunkSize) {
+          writeChunk(chunk, chunkIndexes, results);
+        }
+      }
+      index++;
+    }
+    writeChunk(chunk, chunkIndexes, results);
+
+    results.sort(Comparator.comparingInt(BulkCreateResult::index));
+    int created = (int) results.stream().filter(r -> r.id() != null).count();
+    return new BulkCreateResponse(created, results.size() - created, results);
   }
 
-  public CustomerResponse get(String id) {
+  /**
+   * Creates customers from a newline-delimited JSON stream of {@link CreateCustomerRequest}s.
+   *
+   * @param in the request body
+   *
+   * @return per-item ids and errors
+   *
+   * @see #bulkCreate(Iterator)
+   */
+  public BulkCreateResponse bulkCreate(InputStream in) throws IOException {
+    try (MappingIterator<CreateCustomerRequest> items =
+             objectMapper.readerFor(CreateCustomerRequest.class).readValues(in)) {
+      return bulkCreate(items);
+    }
+  }
+
+  private void writeChunk(List<Customer> chunk, List<Integer> indexes, List<BulkCreateResult> results) {
+    if (chunk.isEmpty()) return;
+    Map<String, String> failures;
+    try {
+      failures = repo.saveAll(chunk);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataStoreException("Interrupted while calling Firestore", e);
+    } catch (ExecutionException e) {
+      throw upstreamFailure(e);
+    }
+    for (int i = 0; i < chunk.size(); i++) {
+      String id = chunk.get(i).getId();
+      String failure = failures.get(id);
+      if (failure == null) {
+        cache.invalidate(id);
+        results.add(new BulkCreateResult(indexes.get(i), id, null));
+      } else {
+        results.add(new BulkCreateResult(indexes.get(i), null, failure));
+      }
+    }
+    chunk.clear();
+    indexes.clear();
+  }
+
+  private String validate(CreateCustomerRequest req) {
+    if (req == null) return "Item must not be null";
+    Set<ConstraintViolation<CreateCustomerRequest>> violations = validator.validate(req);
+    if (violations.isEmpty()) return null;
+    return violations.stream()
+                     .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                     .sorted()
+                     .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Looks up a customer without blocking the calling thread. Customers in the near cache window (when enabled) are
+   * answered from memory; otherwise the lookup reads through the cache, which also makes concurrent misses of the
+   * same id share one Firestore read.
+   *
+   * @param id the customer id
+   *
+   * @return a future completed with the customer, or failed with {@link NotFoundException}
+   */
+  public CompletableFuture<CustomerResponse> getAsync(String id) {
     if (id == null || id.isBlank()) {
       throw new BadRequestException("id must not be blank");
     }
+    Optional<CustomerResponse> near = nearCache.flatMap(n -> n.get(id));
+    if (near.isPresent()) {
+      return CompletableFuture.completedFuture(near.get());
+    }
 
-    try {
-      DocumentSnapshot snap = db.collection("customers").document(id).get().get();
-      if (!snap.exists()) {
-        throw new NotFoundException("Customer %s not found".formatted(id));
+    return withTimeout(cache.getAsync(id, repo::findByIdAsync)
+                            .thenApply(c -> c.orElseThrow(
+                                () -> new NotFoundException("Customer %s not found".formatted(id)))));
+  }
+
+  /**
+   * Looks up a customer by email without blocking the calling thread: the email's reservation resolves it to an id
+   * with one point read, and the customer is then read like {@link #getAsync}.
+   *
+   * @param email the email, matched trimmed and case-insensitively
+   *
+   * @return a future completed with the customer, or failed with {@link NotFoundException}
+   */
+  public CompletableFuture<CustomerResponse> getByEmailAsync(String email) {
+    if (email == null || email.isBlank()) {
+      throw new BadRequestException("email must not be blank");
+    }
+    return withTimeout(repo.findIdByEmailAsync(email)).thenCompose(id -> id.map(this::getAsync).orElseThrow(
+        () -> new NotFoundException("Customer with email %s not found".formatted(email))));
+  }
+
+  /**
+   * Looks up many customers at once. Duplicate ids are collapsed, cached entries are served from the cache and the
+   * rest are read with a single Firestore {@code getAll}.
+   *
+   * @param ids the ids to look up; at most {@code app.customers.batch-get.max-ids} distinct ids
+   *
+   * @return the customers found and the ids that do not exist, both in request order
+   */
+  public BatchGetResponse getAll(List<String> ids) {
+    Set<String> distinct = new LinkedHashSet<>(ids);
+    if (distinct.size() > batchGetMaxIds) {
+      throw new BadRequestException("At most %d ids can be requested at once".formatted(batchGetMaxIds));
+    }
+
+    Map<String, Optional<CustomerResponse>> byId = cache.getAll(distinct, this::loadAll);
+    List<CustomerResponse> found = new ArrayList<>(distinct.size());
+    List<String> missing = new ArrayList<>();
+    for (String id : distinct) {
+      Optional<CustomerResponse> customer = byId.getOrDefault(id, Optional.empty());
+      if (customer.isPresent()) {
+        found.add(customer.get());
+      } else {
+        missing.add(id);
       }
-      return map(snap);
+    }
+    return new BatchGetResponse(found, missing);
+  }
+
+  private Map<String, Optional<CustomerResponse>> loadAll(Set<String> ids) {
+    try {
+      return repo.findAllById(ids);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataStoreException("Interrupted while calling Firestore", e);
+    } catch (ExecutionException e) {
+      throw upstreamFailure(e);
+    }
+  }
+
+  /**
+   * Lists customers newest first using keyset pagination. Pages inside the near cache window are served from memory.
+   *
+   * @param size      the requested page size; values above {@code app.customers.max-page-size} are capped
+   * @param pageToken the {@code nextPageToken} of the previous page, or {@code null} for the first page
+   *
+   * @return a future completed with the requested page
+   */
+  public CompletableFuture<CustomerPage> listAsync(int size, String pageToken) {
+    if (size < 1) {
+      throw new BadRequestException("size must be greater than 0");
+    }
+    CustomerCursor after = (pageToken == null || pageToken.isBlank()) ? null : CustomerCursor.decode(pageToken);
+    int pageSize = Math.min(size, maxPageSize);
+    Optional<CustomerPage> near = nearCache.flatMap(n -> n.page(pageSize, after));
+    if (near.isPresent()) {
+      return CompletableFuture.completedFuture(near.get());
+    }
+    return withTimeout(repo.findPageAsync(pageSize, after));
+  }
+
+  /**
+   * Writes every customer as newline-delimited JSON, newest first.
+   * The collection is read page by page ({@code app.customers.export.page-size}) and each page is flushed before the
+   * next one is requested, so memory use stays constant and a slow client throttles the Firestore reads.
+   *
+   * @param out the stream to write to; it is flushed but not closed
+   */
+  public void export(OutputStream out) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(CustomerResponse.class)
+                                      .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      gen.setRootValueSeparator(null);
+
+      CustomerCursor after = null;
+      CustomerPage page;
+      do {
+        page = fetchPage(exportPageSize, after);
+        for (CustomerResponse customer : page.items()) {
+          writer.writeValue(gen, customer);
+          gen.writeRaw('\n');
+        }
+        gen.flush();
+        if (!page.items().isEmpty()) {
+          CustomerResponse last = page.items().get(page.items().size() - 1);
+          after = new CustomerCursor(last.createdAt(), last.id());
+        }
+      } while (page.nextPageToken() != null);
+    }
+  }
+
+  private CustomerPage fetchPage(int size, CustomerCursor after) {
+    try {
+      return repo.findPage(size, after);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new DataStoreException("Interrupted while calling Firestore", e);
     } catch (ExecutionException e) {
-      throw new DataStoreException("Firestore error", e.getCause());
+      throw upstreamFailure(e);
     }
   }
 
+  /**
+   * Bounds a Firestore call by {@code app.customers.async-timeout} and normalizes its failures: a timeout becomes
+   * {@link AsyncRequestTimeoutException} (503), application exceptions pass through and anything else coming from
+   * the client becomes {@link DataStoreException} (502).
+   */
+  private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+    return future.orTimeout(asyncTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                 .handle((value, ex) -> {
+                   if (ex == null) return value;
+                   Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+                   if (cause instanceof TimeoutException) {
+                     throw new AsyncRequestTimeoutException();
+                   }
+                   if (cause instanceof RuntimeException re && isApplicationException(re)) {
+                     throw re;
+                   }
+                   throw new DataStoreException("Firestore error", cause);
+                 });
+  }
 
-  public List<CustomerResponse> list(int size) throws Exception {
-    return db.collection("customers")
-             .orderBy("createdAt", com.google.cloud.firestore.Query.Direction.DESCENDING)
-             .limit(size)
-             .get().get()
-             .getDocuments().stream().map(this::map).toList();
+  /**
+   * Unwraps a failed blocking Firestore call: application exceptions (such as a shed call) pass through, anything
+   * else becomes {@link DataStoreException}.
+   */
+  private static RuntimeException upstreamFailure(ExecutionException e) {
+    if (e.getCause() instanceof RuntimeException re && isApplicationException(re)) {
+      return re;
+    }
+    return new DataStoreException("Firestore error", e.getCause());
   }
 
-  private CustomerResponse map(DocumentSnapshot d) {
-    var ts = d.getTimestamp("createdAt");
-    Instant created = ts != null ? Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos()) : null;
-    return new CustomerResponse(d.getId(), d.getString("name"), d.getString("email"), created);
+  /**
+   * The exceptions the repository and the limiters raise on purpose, already mapped to a status by
+   * {@code CustomExceptionHandler}; a new one has to be listed here to pass through.
+   */
+  private static boolean isApplicationException(RuntimeException ex) {
+    return ex instanceof NotFoundException
+        || ex instanceof EntityConflictException
+        || ex instanceof ServiceOverloadedException
+        || ex instanceof BadRequestException
+        || ex instanceof EntityValidationException
+        || ex instanceof PayloadTooLargeException
+        || ex instanceof DataStoreException;
   }
 }
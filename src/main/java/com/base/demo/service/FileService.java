@@ -0,0 +1,329 @@
+package com.base.demo.service;
+
+import com.base.demo.exception.BadRequestException;
+import com.base.demo.exception.DataStoreException;
+import com.base.demo.exception.NotFoundException;
+import com.base.demo.exception.PayloadTooLargeException;
+import com.base.demo.exception.ServiceOverloadedException;
+import com.base.demo.model.DTO.file.SignedUploadRequest;
+import com.base.demo.model.DTO.file.SignedUrlResponse;
+import com.base.demo.model.DTO.file.UploadedFile;
+import com.base.demo.monitoring.UpstreamMetrics;
+import com.base.demo.repository.FileRepository;
+import com.google.auth.ServiceAccountSigner;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.HttpMethod;
+import com.google.cloud.storage.Storage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import static com.base.demo.monitoring.UpstreamMetrics.GCS;
+
+@Service
+public class FileService {
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private final Storage storage;
+  private final GoogleCredentials credentials;
+  private final FileRepository files;
+  private final UpstreamMetrics metrics;
+  private final String bucket;
+  private final int chunkSize;
+  private final long maxSize;
+  private final int downloadBufferSize;
+  private final BlockingQueue<ByteBuffer> downloadBuffers;
+  private final Duration signedUrlExpiry;
+
+  public FileService(Storage storage, GoogleCredentials credentials, FileRepository files, UpstreamMetrics metrics,
+                     @Value("${app.storage.bucket}") String bucket,
+                     @Value("${app.storage.upload.chunk-size:2MB}") DataSize chunkSize,
+                     @Value("${app.storage.upload.max-size:512MB}") DataSize maxSize,
+                     @Value("${app.storage.download.buffer-size:256KB}") DataSize downloadBufferSize,
+                     @Value("${app.storage.download.pooled-buffers:64}") int pooledBuffers,
+                     @Value("${app.storage.signed-url.expiry:15m}") Duration signedUrlExpiry) {
+    this.storage = storage;
+    this.credentials = credentials;
+    this.files = files;
+    this.metrics = metrics;
+    this.bucket = bucket;
+    this.chunkSize = (int) chunkSize.toBytes();
+    this.maxSize = maxSize.toBytes();
+    this.downloadBufferSize = (int) downloadBufferSize.toBytes();
+    this.downloadBuffers = new ArrayBlockingQueue<>(pooledBuffers);
+    this.signedUrlExpiry = signedUrlExpiry;
+  }
+
+  /**
+   * Streams a multipart file into the bucket under {@code uploads/}.
+   * <p>
+   * The content is copied from the part's {@link InputStream} into a resumable {@link WriteChannel}, so heap use is
+   * bounded by {@code app.storage.upload.chunk-size} regardless of file size. CRC32C and MD5 are computed while
+   * copying and checked against what Cloud Storage reports once the upload is finalized; on mismatch the object is
+   * deleted. Uploads over {@code app.storage.upload.max-size} are rejected and never finalized.
+   *
+   * @param file the uploaded part
+   *
+   * @return the stored object
+   */
+  public UploadedFile upload(MultipartFile file) throws IOException {
+    if (file.getSize() > maxSize) {
+      throw new PayloadTooLargeException("File exceeds the maximum size of %d bytes".formatted(maxSize));
+    }
+
+    String objectName = "uploads/" + UUID.randomUUID() + "-" + sanitize(file.getOriginalFilename());
+    BlobInfo info = BlobInfo.newBuilder(BlobId.of(bucket, objectName))
+                            .setContentType(file.getContentType())
+                            .build();
+
+    CRC32C crc32c = new CRC32C();
+    MessageDigest md5 = md5();
+    WriteChannel writer = storage.writer(info);
+    writer.setChunkSize(chunkSize);
+    long size = metrics.time(GCS, bucket, "upload", () -> write(file, writer, crc32c, md5));
+    metrics.recordBytes(GCS, bucket, "upload", size);
+
+    String expectedCrc32c = base64(ByteBuffer.allocate(4).putInt((int) crc32c.getValue()).array());
+    String expectedMd5 = base64(md5.digest());
+    Blob blob = metrics.time(GCS, bucket, "getMetadata", () -> storage.get(info.getBlobId()));
+    if (blob == null
+        || !expectedCrc32c.equals(blob.getCrc32c())
+        || (blob.getMd5() != null && !expectedMd5.equals(blob.getMd5()))) {
+      delete(info.getBlobId());
+      throw new DataStoreException("Integrity check failed for " + objectName, null);
+    }
+
+    return new UploadedFile(bucket, objectName, blob.getContentType(), size, expectedCrc32c, expectedMd5);
+  }
+
+  /**
+   * Copies the part into {@code writer}, updating both checksums, and finalizes the object only if the whole part
+   * was copied within the size limit.
+   *
+   * @return the number of bytes written
+   */
+  private long write(MultipartFile file, WriteChannel writer, CRC32C crc32c, MessageDigest md5) throws IOException {
+    long size = 0;
+    boolean completed = false;
+    try (InputStream in = file.getInputStream()) {
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        size += read;
+        if (size > maxSize) {
+          throw new PayloadTooLargeException("File exceeds the maximum size of %d bytes".formatted(maxSize));
+        }
+        crc32c.update(buffer, 0, read);
+        md5.update(buffer, 0, read);
+        ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+        while (chunk.hasRemaining()) {
+          writer.write(chunk);
+        }
+      }
+      completed = true;
+    } finally {
+      // solo se cierra (y por tanto se finaliza el objeto) si se copió entero; si no, la sesión resumible caduca sola
+      if (completed) {
+        writer.close();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Signs a V4 {@code PUT} URL so the client uploads straight to Cloud Storage.
+   * <p>
+   * The declared content type and a {@code x-goog-content-length-range} capped at the declared size are part of the
+   * signature, so Cloud Storage rejects uploads that do not match them. Once the upload finishes the client calls
+   * {@link #completeUpload(String)}.
+   *
+   * @param req the file the client wants to upload
+   *
+   * @return the URL and the headers the client must send with it
+   */
+  public SignedUrlResponse signUpload(SignedUploadRequest req) {
+    if (req.size() > maxSize) {
+      throw new PayloadTooLargeException("File exceeds the maximum size of %d bytes".formatted(maxSize));
+    }
+    String objectName = "uploads/" + UUID.randomUUID() + "-" + sanitize(req.filename());
+    Map<String, String> headers = Map.of(
+        "Content-Type", req.contentType(),
+        "x-goog-content-length-range", "0," + req.size());
+    BlobInfo info = BlobInfo.newBuilder(BlobId.of(bucket, objectName)).setContentType(req.contentType()).build();
+    URL url = sign(info, HttpMethod.PUT, Storage.SignUrlOption.withExtHeaders(headers));
+    return new SignedUrlResponse(url.toString(), "PUT", headers, objectName, Instant.now().plus(signedUrlExpiry));
+  }
+
+  /**
+   * Signs a V4 {@code GET} URL so the client downloads straight from Cloud Storage.
+   *
+   * @param objectName the object to download
+   *
+   * @return the URL
+   */
+  public SignedUrlResponse signDownload(String objectName) {
+    Blob blob = find(objectName).orElseThrow(() -> new NotFoundException("File %s not found".formatted(objectName)));
+    URL url = sign(BlobInfo.newBuilder(blob.getBlobId()).build(), HttpMethod.GET);
+    return new SignedUrlResponse(url.toString(), "GET", Map.of(), objectName, Instant.now().plus(signedUrlExpiry));
+  }
+
+  /**
+   * Records an object uploaded through a signed URL, after checking that it exists and respects the size limit.
+   * Oversized objects are deleted.
+   *
+   * @param objectName the object name returned by {@link #signUpload(SignedUploadRequest)}
+   *
+   * @return the recorded object
+   */
+  public UploadedFile completeUpload(String objectName) {
+    if (!objectName.startsWith("uploads/")) {
+      throw new BadRequestException("Only objects under uploads/ can be completed");
+    }
+    Blob blob = find(objectName).orElseThrow(() -> new NotFoundException("File %s not found".formatted(objectName)));
+    if (blob.getSize() > maxSize) {
+      delete(blob.getBlobId());
+      throw new PayloadTooLargeException("File exceeds the maximum size of %d bytes".formatted(maxSize));
+    }
+
+    UploadedFile file = new UploadedFile(bucket, objectName, blob.getContentType(), blob.getSize(),
+                                         blob.getCrc32c(), blob.getMd5());
+    try {
+      files.save(file);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataStoreException("Interrupted while calling Firestore", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ServiceOverloadedException overloaded) {
+        throw overloaded;
+      }
+      throw new DataStoreException("Firestore error", e.getCause());
+    } catch (Exception e) {
+      throw new DataStoreException("Firestore error", e);
+    }
+    return file;
+  }
+
+  private URL sign(BlobInfo info, HttpMethod method, Storage.SignUrlOption... extra) {
+    List<Storage.SignUrlOption> options = new ArrayList<>(List.of(extra));
+    options.add(Storage.SignUrlOption.httpMethod(method));
+    options.add(Storage.SignUrlOption.withV4Signature());
+    if (credentials instanceof ServiceAccountSigner signer) {
+      options.add(Storage.SignUrlOption.signWith(signer));
+    }
+    return metrics.time(GCS, bucket, "signUrl",
+                        () -> storage.signUrl(info, signedUrlExpiry.toSeconds(), TimeUnit.SECONDS,
+                                              options.toArray(Storage.SignUrlOption[]::new)));
+  }
+
+  /**
+   * Looks up an object's metadata.
+   *
+   * @param objectName the object name
+   *
+   * @return the object, or empty if it does not exist
+   */
+  public Optional<Blob> find(String objectName) {
+    Blob blob = metrics.time(GCS, bucket, "getMetadata", () -> storage.get(BlobId.of(bucket, objectName)));
+    return (blob == null || !blob.exists()) ? Optional.empty() : Optional.of(blob);
+  }
+
+  /**
+   * Copies bytes {@code [start, end]} of an object to {@code out} through a {@link ReadChannel}.
+   * <p>
+   * The read is pinned to the generation of {@code blob}, so a concurrent overwrite cannot mix two versions in one
+   * response. Data moves through a pooled direct buffer of {@code app.storage.download.buffer-size}, so a download
+   * costs constant memory whatever the object size.
+   *
+   * @param blob  the object, as returned by {@link #find(String)}
+   * @param start first byte to copy (inclusive)
+   * @param end   last byte to copy (inclusive)
+   * @param out   where to write; flushed but not closed
+   */
+  public void copyRange(Blob blob, long start, long end, OutputStream out) throws IOException {
+    long copied = metrics.time(GCS, bucket, "download", () -> copy(blob, start, end, out));
+    metrics.recordBytes(GCS, bucket, "download", copied);
+  }
+
+  private long copy(Blob blob, long start, long end, OutputStream out) throws IOException {
+    ByteBuffer buffer = acquireBuffer();
+    long copied = 0;
+    try (ReadChannel reader = storage.reader(BlobId.of(bucket, blob.getName(), blob.getGeneration()))) {
+      reader.setChunkSize(downloadBufferSize);
+      reader.seek(start);
+      reader.limit(end + 1);
+      WritableByteChannel target = Channels.newChannel(out);
+      while (reader.read(buffer) >= 0) {
+        buffer.flip();
+        copied += buffer.remaining();
+        while (buffer.hasRemaining()) {
+          target.write(buffer);
+        }
+        buffer.clear();
+      }
+      out.flush();
+    } finally {
+      releaseBuffer(buffer);
+    }
+    return copied;
+  }
+
+  private void delete(BlobId blobId) {
+    metrics.time(GCS, bucket, "delete", () -> storage.delete(blobId));
+  }
+
+  private ByteBuffer acquireBuffer() {
+    ByteBuffer buffer = downloadBuffers.poll();
+    return buffer != null ? buffer : ByteBuffer.allocateDirect(downloadBufferSize);
+  }
+
+  private void releaseBuffer(ByteBuffer buffer) {
+    buffer.clear();
+    downloadBuffers.offer(buffer); // si el pool está lleno se descarta
+  }
+
+  private static MessageDigest md5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 not available", e);
+    }
+  }
+
+  private static String base64(byte[] bytes) {
+    return Base64.getEncoder().encodeToString(bytes);
+  }
+
+  private static String sanitize(String name) {
+    if (name == null) return "file.bin";
+    return name.replaceAll("[\\r\\n\\\\\"]", "_");
+  }
+}
@@ -0,0 +1,111 @@
+package com.base.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class CaffeineCustomerCacheTest {
+
+  private static final CustomerResponse ADA =
+      new CustomerResponse("c-1", "Ada", "ada@example.com", Instant.EPOCH, Instant.EPOCH);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final AtomicLong nanos = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final CaffeineCustomerCache cache = new CaffeineCustomerCache(
+      registry, 100, Duration.ofMinutes(5), Duration.ofSeconds(30), nanos::get);
+
+  @Test
+  void foundCustomerLivesForTtl() {
+    assertThat(get(Optional.of(ADA))).contains(ADA);
+    advance(Duration.ofMinutes(4));
+    get(Optional.of(ADA));
+    assertThat(loads).hasValue(1);
+
+    advance(Duration.ofMinutes(2));
+    get(Optional.of(ADA));
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void missingCustomerLivesForNegativeTtl() {
+    assertThat(get(Optional.empty())).isEmpty();
+    advance(Duration.ofSeconds(20));
+    get(Optional.empty());
+    assertThat(loads).hasValue(1);
+
+    advance(Duration.ofSeconds(11));
+    assertThat(get(Optional.of(ADA))).contains(ADA);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void invalidateDropsNegativeEntry() {
+    get(Optional.empty());
+    cache.invalidate("c-1");
+
+    assertThat(get(Optional.of(ADA))).contains(ADA);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void lookupsJoiningALoadInFlightAreCounted() {
+    CompletableFuture<Optional<CustomerResponse>> pending = new CompletableFuture<>();
+    CompletableFuture<Optional<CustomerResponse>> first = cache.getAsync("c-1", id -> {
+      loads.incrementAndGet();
+      return pending;
+    });
+    CompletableFuture<Optional<CustomerResponse>> second = cache.getAsync("c-1", id -> {
+      loads.incrementAndGet();
+      return CompletableFuture.completedFuture(Optional.empty());
+    });
+    pending.complete(Optional.of(ADA));
+    get(Optional.empty()); // ya cargado: acierto, no se une a nada
+
+    assertThat(first.join()).contains(ADA);
+    assertThat(second.join()).contains(ADA);
+    assertThat(loads).hasValue(1);
+    assertThat(registry.get("singleflight.coalesced").tag("name", "customers").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void bulkLoadRunsOnCallingThreadAndOnlyForMisses() {
+    get(Optional.of(ADA));
+    Thread caller = Thread.currentThread();
+    AtomicReference<Thread> loaderThread = new AtomicReference<>();
+    AtomicReference<Set<String>> requested = new AtomicReference<>();
+
+    Map<String, Optional<CustomerResponse>> result = cache.getAll(List.of("c-1", "c-2"), missing -> {
+      loaderThread.set(Thread.currentThread());
+      requested.set(missing);
+      return Map.of("c-2", Optional.empty());
+    });
+
+    assertThat(loaderThread.get()).isSameAs(caller);
+    assertThat(requested.get()).containsExactly("c-2");
+    assertThat(result).containsEntry("c-1", Optional.of(ADA)).containsEntry("c-2", Optional.empty());
+  }
+
+  private Optional<CustomerResponse> get(Optional<CustomerResponse> stored) {
+    return cache.getAsync("c-1", id -> {
+      loads.incrementAndGet();
+      return CompletableFuture.completedFuture(stored);
+    }).join();
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+}
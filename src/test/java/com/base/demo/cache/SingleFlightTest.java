@@ -0,0 +1,91 @@
+package com.base.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final SingleFlight<String, String> flight = new SingleFlight<>("test", registry);
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Test
+  void concurrentCallersShareOneResult() {
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+    CompletableFuture<String> first = flight.execute("k", key -> start(upstream));
+    CompletableFuture<String> second = flight.execute("k", key -> start(new CompletableFuture<>()));
+
+    upstream.complete("value");
+
+    assertThat(first.join()).isEqualTo("value");
+    assertThat(second.join()).isEqualTo("value");
+    assertThat(calls).hasValue(1);
+    assertThat(coalesced()).isEqualTo(1);
+    assertThat(flight.inFlight()).isZero();
+  }
+
+  @Test
+  void concurrentCallersShareOneFailure() {
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+    CompletableFuture<String> first = flight.execute("k", key -> start(upstream));
+    CompletableFuture<String> second = flight.execute("k", key -> start(new CompletableFuture<>()));
+
+    IllegalStateException failure = new IllegalStateException("boom");
+    upstream.completeExceptionally(failure);
+
+    assertThatThrownBy(first::join).isInstanceOf(CompletionException.class).hasCause(failure);
+    assertThatThrownBy(second::join).isInstanceOf(CompletionException.class).hasCause(failure);
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void callAfterCompletionStartsAFreshCall() {
+    flight.execute("k", key -> start(CompletableFuture.completedFuture("old"))).join();
+
+    assertThat(flight.execute("k", key -> start(CompletableFuture.completedFuture("new"))).join()).isEqualTo("new");
+    assertThat(calls).hasValue(2);
+    assertThat(coalesced()).isZero();
+  }
+
+  @Test
+  void forgetDetachesTheCallInFlight() {
+    CompletableFuture<String> stale = new CompletableFuture<>();
+    CompletableFuture<String> before = flight.execute("k", key -> start(stale));
+
+    flight.forget("k"); // p. ej. tras una escritura
+    CompletableFuture<String> after = flight.execute("k", key -> start(CompletableFuture.completedFuture("fresh")));
+    stale.complete("stale");
+
+    assertThat(before.join()).isEqualTo("stale");
+    assertThat(after.join()).isEqualTo("fresh");
+    assertThat(calls).hasValue(2);
+    assertThat(coalesced()).isZero();
+  }
+
+  @Test
+  void callerCancellingDoesNotAffectOthers() {
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+    CompletableFuture<String> first = flight.execute("k", key -> start(upstream));
+    CompletableFuture<String> second = flight.execute("k", key -> start(new CompletableFuture<>()));
+
+    first.cancel(true);
+    upstream.complete("value");
+
+    assertThat(second.join()).isEqualTo("value");
+  }
+
+  private CompletableFuture<String> start(CompletableFuture<String> upstream) {
+    calls.incrementAndGet();
+    return upstream;
+  }
+
+  private double coalesced() {
+    return registry.get("singleflight.coalesced").tag("name", "test").counter().count();
+  }
+}
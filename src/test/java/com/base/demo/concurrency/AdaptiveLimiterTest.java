@@ -0,0 +1,107 @@
+package com.base.demo.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.base.demo.concurrency.AdaptiveLimiter.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimiterTest {
+
+  private static final long FAST = Duration.ofMillis(1).toNanos();
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final AdaptiveLimiter limiter = new AdaptiveLimiter("test", registry, 10, 5, 20, 2.0, 0.9);
+
+  @Test
+  void rejectsOverLimit() {
+    hold(10);
+
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(registry.get("concurrency.rejected").tag("limiter", "test").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void growsAdditivelyWhileLimitIsUsed() {
+    hold(9);
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+      limiter.release(FAST, Outcome.SUCCESS);
+    }
+
+    assertThat(limit()).isEqualTo(10); // +1/limit por llamada: aún no llega a 11
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(FAST, Outcome.SUCCESS);
+    }
+    assertThat(limit()).isEqualTo(11);
+  }
+
+  @Test
+  void doesNotGrowWhenUnderused() {
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire();
+      limiter.release(FAST, Outcome.SUCCESS);
+    }
+
+    assertThat(limit()).isEqualTo(10);
+  }
+
+  @Test
+  void backsOffMultiplicativelyWhenLatencyRises() {
+    limiter.tryAcquire();
+    limiter.release(FAST, Outcome.SUCCESS);
+
+    limiter.tryAcquire();
+    limiter.release(FAST * 100, Outcome.SUCCESS);
+
+    assertThat(limit()).isEqualTo(9);
+  }
+
+  @Test
+  void backsOffOncePerRoundTripOnDrops() {
+    limiter.tryAcquire();
+    limiter.release(Duration.ofSeconds(1).toNanos(), Outcome.SUCCESS); // ventana de 1 s
+
+    limiter.tryAcquire();
+    limiter.release(FAST, Outcome.DROPPED);
+    limiter.tryAcquire();
+    limiter.release(FAST, Outcome.DROPPED);
+
+    assertThat(limit()).isEqualTo(9);
+  }
+
+  @Test
+  void neverDropsBelowMinimum() throws InterruptedException {
+    for (int i = 0; i < 20; i++) {
+      limiter.tryAcquire();
+      limiter.release(FAST, Outcome.DROPPED);
+      Thread.sleep(1); // sin muestras la ventana es 0: basta con que avance el reloj
+    }
+
+    assertThat(limit()).isEqualTo(5);
+  }
+
+  @Test
+  void ignoredOutcomesDoNotMoveTheLimit() {
+    hold(9);
+    for (int i = 0; i < 50; i++) {
+      limiter.tryAcquire();
+      limiter.release(FAST * 1000, Outcome.IGNORED);
+    }
+
+    assertThat(limit()).isEqualTo(10);
+    assertThat(registry.get("concurrency.in_flight").tag("limiter", "test").gauge().value()).isEqualTo(9);
+  }
+
+  private void hold(int permits) {
+    for (int i = 0; i < permits; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+  }
+
+  private double limit() {
+    return registry.get("concurrency.limit").tag("limiter", "test").gauge().value();
+  }
+}
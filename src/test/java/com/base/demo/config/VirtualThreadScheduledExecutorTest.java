@@ -0,0 +1,62 @@
+package com.base.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadScheduledExecutorTest {
+
+  private final VirtualThreadScheduledExecutor executor = new VirtualThreadScheduledExecutor("test-", 1);
+
+  @Test
+  void runsTasksOnVirtualThreads() throws Exception {
+    CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+    executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+
+    assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+    executor.shutdown();
+  }
+
+  @Test
+  void delayedTasksRunOnVirtualThreadsWithTheirResult() throws Exception {
+    ScheduledFuture<Boolean> future = executor.schedule(() -> Thread.currentThread().isVirtual(), 10,
+                                                        TimeUnit.MILLISECONDS);
+
+    assertThat(future.get(5, TimeUnit.SECONDS)).isTrue();
+    executor.shutdown();
+  }
+
+  @Test
+  void blockingTasksAreNotCappedByTimerThreads() throws Exception {
+    int tasks = 100;
+    CountDownLatch started = new CountDownLatch(tasks);
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < tasks; i++) {
+      executor.schedule(() -> {
+        started.countDown();
+        release.await(); // todas bloqueadas a la vez con un solo hilo de temporizador
+        return null;
+      }, 1, TimeUnit.MILLISECONDS);
+    }
+
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void cancelledTaskNeverRuns() throws Exception {
+    CompletableFuture<Void> ran = new CompletableFuture<>();
+    ScheduledFuture<?> future = executor.schedule(() -> ran.complete(null), 1, TimeUnit.HOURS);
+
+    assertThat(future.cancel(false)).isTrue();
+    assertThat(future.isCancelled()).isTrue();
+    assertThat(ran).isNotDone();
+    executor.shutdownNow();
+  }
+}
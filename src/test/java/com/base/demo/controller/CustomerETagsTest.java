@@ -0,0 +1,63 @@
+package com.base.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.base.demo.model.DTO.customer.CustomerPage;
+import com.base.demo.model.DTO.customer.CustomerResponse;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CustomerETagsTest {
+
+  private static final Instant CREATED = Instant.parse("2024-05-01T10:00:00Z");
+  private static final CustomerResponse ADA =
+      new CustomerResponse("c-1", "Ada", "ada@example.com", CREATED, CREATED.plusNanos(1500));
+  private static final CustomerResponse ALAN =
+      new CustomerResponse("c-2", "Alan", "alan@example.com", CREATED, CREATED);
+
+  @Test
+  void customerTagFollowsUpdateTime() {
+    assertThat(CustomerETags.of(ADA)).isEqualTo("\"1714557600.1500\"");
+    assertThat(CustomerETags.of(new CustomerResponse("c-1", "Ada", "ada@example.com", CREATED, null)))
+        .isEqualTo("\"1714557600.0\"");
+  }
+
+  @Test
+  void pageTagChangesWithItemsAndNextToken() {
+    String tag = CustomerETags.of(new CustomerPage(List.of(ADA, ALAN), "next"));
+
+    assertThat(tag).startsWith("\"").endsWith("\"").hasSize(24);
+    assertThat(CustomerETags.of(new CustomerPage(List.of(ADA, ALAN), "next"))).isEqualTo(tag);
+    assertThat(CustomerETags.of(new CustomerPage(List.of(ADA), "next"))).isNotEqualTo(tag);
+    assertThat(CustomerETags.of(new CustomerPage(List.of(ADA, ALAN), null))).isNotEqualTo(tag);
+    CustomerResponse edited = new CustomerResponse("c-2", "Alan", "alan@example.com", CREATED, CREATED.plusSeconds(1));
+    assertThat(CustomerETags.of(new CustomerPage(List.of(ADA, edited), "next"))).isNotEqualTo(tag);
+  }
+
+  @Test
+  void matchesAnyTagInList() {
+    assertThat(CustomerETags.matches("\"a\", \"1714557600.1500\" ,\"b\"", CustomerETags.of(ADA))).isTrue();
+    assertThat(CustomerETags.matches("\"a\",\"b\"", CustomerETags.of(ADA))).isFalse();
+  }
+
+  @Test
+  void starMatchesAnything() {
+    assertThat(CustomerETags.matches("*", "\"x\"")).isTrue();
+    assertThat(CustomerETags.matches(" * ", "\"x\"")).isTrue();
+  }
+
+  @Test
+  void usesWeakComparison() {
+    assertThat(CustomerETags.matches("W/\"x\"", "\"x\"")).isTrue();
+    assertThat(CustomerETags.matches("\"a\", W/\"x\"", "\"x\"")).isTrue();
+    assertThat(CustomerETags.matches("W/\"y\"", "\"x\"")).isFalse();
+  }
+
+  @Test
+  void missingOrUnquotedHeaderDoesNotMatch() {
+    assertThat(CustomerETags.matches(null, "\"x\"")).isFalse();
+    assertThat(CustomerETags.matches(" ", "\"x\"")).isFalse();
+    assertThat(CustomerETags.matches("x", "\"x\"")).isFalse();
+  }
+}
@@ -0,0 +1,109 @@
+package com.base.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.base.demo.service.FileService;
+import com.google.cloud.storage.Blob;
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class FileControllerTest {
+
+  private static final OffsetDateTime UPDATED = OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+  private final FileService files = mock(FileService.class);
+  private final Blob blob = mock(Blob.class);
+  private final FileController controller = new FileController(files);
+
+  @BeforeEach
+  void setUp() {
+    when(files.find("docs/report.pdf")).thenReturn(Optional.of(blob));
+    when(blob.getSize()).thenReturn(1000L);
+    when(blob.getEtag()).thenReturn("abc");
+    when(blob.getUpdateTimeOffsetDateTime()).thenReturn(UPDATED);
+    when(blob.getContentType()).thenReturn("application/pdf");
+  }
+
+  @Test
+  void singleRangeIsPartialContent() throws Exception {
+    ResponseEntity<StreamingResponseBody> response = download("bytes=100-199", null);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/1000");
+    assertThat(response.getHeaders().getContentLength()).isEqualTo(100);
+    response.getBody().writeTo(new ByteArrayOutputStream());
+    verify(files).copyRange(any(), eq(100L), eq(199L), any());
+  }
+
+  @Test
+  void suffixAndOpenRangesAreClampedToLength() {
+    assertThat(download("bytes=-300", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE))
+        .isEqualTo("bytes 700-999/1000");
+    assertThat(download("bytes=900-5000", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE))
+        .isEqualTo("bytes 900-999/1000");
+  }
+
+  @Test
+  void unsatisfiableRangeIs416() {
+    ResponseEntity<StreamingResponseBody> response = download("bytes=1000-", null);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+  }
+
+  @Test
+  void malformedOrMultipleRangesSendWholeObject() {
+    for (String range : new String[] {"bytes=abc", "items=0-10", "bytes=0-10,20-30"}) {
+      ResponseEntity<StreamingResponseBody> response = download(range, null);
+      assertThat(response.getStatusCode()).as(range).isEqualTo(HttpStatus.OK);
+      assertThat(response.getHeaders().getContentLength()).as(range).isEqualTo(1000);
+    }
+  }
+
+  @Test
+  void ifRangeWithCurrentValidatorHonoursRange() {
+    assertThat(download("bytes=0-9", "\"abc\"").getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    assertThat(download("bytes=0-9", "Wed, 01 May 2024 10:00:00 GMT").getStatusCode())
+        .isEqualTo(HttpStatus.PARTIAL_CONTENT);
+  }
+
+  @Test
+  void ifRangeWithStaleOrWeakValidatorSendsWholeObject() {
+    for (String ifRange : new String[] {"\"old\"", "W/\"abc\"", "Wed, 01 May 2024 09:00:00 GMT", "yesterday"}) {
+      ResponseEntity<StreamingResponseBody> response = download("bytes=0-9", ifRange);
+      assertThat(response.getStatusCode()).as(ifRange).isEqualTo(HttpStatus.OK);
+      assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).as(ifRange).isNull();
+    }
+  }
+
+  @Test
+  void missingObjectIs404() throws Exception {
+    assertThat(controller.download("/docs/missing.pdf", new HttpHeaders()).getStatusCode())
+        .isEqualTo(HttpStatus.NOT_FOUND);
+    verify(files, never()).copyRange(any(), anyLong(), anyLong(), any());
+  }
+
+  private ResponseEntity<StreamingResponseBody> download(String range, String ifRange) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RANGE, range);
+    if (ifRange != null) {
+      headers.set(HttpHeaders.IF_RANGE, ifRange);
+    }
+    return controller.download("/docs/report.pdf", headers);
+  }
+}
@@ -0,0 +1,53 @@
+package com.base.demo.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ServerTimingFilterTest {
+
+  private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/c-1");
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @Test
+  void headerPrecedesBodyWithoutBuffering() throws Exception {
+    FilterChain chain = (req, res) -> {
+      RequestTimings.of(request).add("firestore", 2_000_000);
+      res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+      res.flushBuffer();
+      assertThat(response.isCommitted()).isTrue(); // el cuerpo va directo a la respuesta
+      RequestTimings.of(request).add("late", 1);
+    };
+
+    new ServerTimingFilter(1.0).doFilter(request, response, chain);
+
+    assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("firestore;dur=2.00, total;dur=");
+    assertThat(response.getContentAsString()).isEqualTo("{}");
+  }
+
+  @Test
+  void headerIsAddedToBodilessResponses() throws Exception {
+    FilterChain chain = (req, res) -> response.setStatus(304);
+
+    new ServerTimingFilter(1.0).doFilter(request, response, chain);
+
+    assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("total;dur=");
+  }
+
+  @Test
+  void unsampledRequestsAreNotMeasured() throws Exception {
+    FilterChain chain = (req, res) -> {
+      assertThat(res).isSameAs(response);
+      res.getWriter().write("{}");
+    };
+
+    new ServerTimingFilter(0.0).doFilter(request, response, chain);
+
+    assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+    assertThat(request.getAttribute(RequestTimings.ATTRIBUTE)).isNull();
+  }
+}
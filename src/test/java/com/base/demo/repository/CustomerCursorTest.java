@@ -0,0 +1,69 @@
+package com.base.demo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.base.demo.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class CustomerCursorTest {
+
+  @Test
+  void roundTrips() {
+    CustomerCursor cursor = new CustomerCursor(Instant.ofEpochSecond(1_700_000_000L, 123_456_789), "c-1:x");
+
+    assertThat(CustomerCursor.decode(cursor.encode())).isEqualTo(cursor);
+  }
+
+  @Test
+  void roundTripsNullCreatedAt() {
+    CustomerCursor cursor = new CustomerCursor(null, "legacy");
+
+    assertThat(CustomerCursor.decode(cursor.encode())).isEqualTo(cursor);
+  }
+
+  @Test
+  void tokenIsUrlSafe() {
+    String token = new CustomerCursor(Instant.EPOCH, "ñ?&=/").encode();
+
+    assertThat(token).matches("[A-Za-z0-9_-]+");
+  }
+
+  @Test
+  void rejectsMalformedTokens() {
+    for (String raw : new String[] {"no-colon", "12:", "x.1:id", "1.x:id", "1:id", "1.2.3:id"}) {
+      assertThatThrownBy(() -> CustomerCursor.decode(token(raw)))
+          .as(raw)
+          .isInstanceOf(BadRequestException.class);
+    }
+    assertThatThrownBy(() -> CustomerCursor.decode("%%%")).isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  void rejectsPositionsOutsideFirestoreTimestampRange() {
+    for (String position : new String[] {"-62135596801.0", "253402300800.0", "9223372036854775807.0", "1.-1",
+                                         "1.1000000000"}) {
+      assertThatThrownBy(() -> CustomerCursor.decode(token(position + ":c-1")))
+          .as(position)
+          .isInstanceOf(BadRequestException.class);
+    }
+    assertThat(CustomerCursor.decode(token("253402300799.999999999:c-1")).createdAt())
+        .isEqualTo(Instant.parse("9999-12-31T23:59:59.999999999Z"));
+  }
+
+  @Test
+  void rejectsIdsFirestoreWouldRefuse() {
+    for (String id : new String[] {"a/b", ".", "..", "__id__", "x".repeat(1501)}) {
+      assertThatThrownBy(() -> CustomerCursor.decode(token("1.0:" + id)))
+          .as(id)
+          .isInstanceOf(BadRequestException.class);
+    }
+  }
+
+  private static String token(String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,113 @@
+package com.base.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class GisIdTokenVerifierTest {
+
+  private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+  private static final String ISSUER = "https://accounts.google.com";
+  private static final KeyPair FIRST = generate();
+  private static final KeyPair SECOND = generate();
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final AtomicReference<Map<String, PublicKey>> published =
+      new AtomicReference<>(Map.of("k1", FIRST.getPublic()));
+  private final SigningKeyManager keys = new SigningKeyManager(
+      () -> new SigningKeys(published.get(), Instant.now().plus(Duration.ofHours(6))),
+      Duration.ofMinutes(10), Duration.ofSeconds(30));
+  private final GisIdTokenVerifier verifier = new GisIdTokenVerifier(
+      keys, new SimpleMeterRegistry(), CLIENT_ID, List.of(ISSUER), 100, Duration.ofSeconds(30), nanos::get);
+
+  @Test
+  void verifiedTokenLivesUntilExp() throws Exception {
+    keys.refresh();
+    String token = sign(FIRST, "k1", 60);
+    assertThat(verifier.verify(token)).hasValueSatisfying(u -> assertThat(u.sub()).isEqualTo("user-1"));
+
+    rotateTo(Map.of("k1", SECOND.getPublic())); // la firma ya no valdría; sigue sirviéndose de caché
+    advance(Duration.ofSeconds(50));
+    assertThat(verifier.verify(token)).isPresent();
+
+    advance(Duration.ofSeconds(20));
+    assertThat(verifier.verify(token)).isEmpty();
+  }
+
+  @Test
+  void badSignatureLivesForNegativeTtl() throws Exception {
+    keys.refresh();
+    String token = sign(SECOND, "k1", 3600);
+    assertThat(verifier.verify(token)).isEmpty();
+
+    rotateTo(Map.of("k1", SECOND.getPublic()));
+    advance(Duration.ofSeconds(20));
+    assertThat(verifier.verify(token)).isEmpty();
+
+    advance(Duration.ofSeconds(11));
+    assertThat(verifier.verify(token)).isPresent();
+  }
+
+  @Test
+  void unknownKeyIdIsNotCached() throws Exception {
+    keys.refresh();
+    String token = sign(SECOND, "k2", 3600);
+    assertThat(verifier.verify(token)).isEmpty();
+
+    rotateTo(Map.of("k1", FIRST.getPublic(), "k2", SECOND.getPublic()));
+    assertThat(verifier.verify(token)).isPresent();
+  }
+
+  @Test
+  void tokensAreRejectedButNotCachedBeforeKeysLoad() throws Exception {
+    String token = sign(FIRST, null, 3600);
+    assertThat(verifier.verify(token)).isEmpty();
+
+    keys.refresh();
+    assertThat(verifier.verify(token)).isPresent();
+  }
+
+  private void rotateTo(Map<String, PublicKey> keySet) {
+    published.set(keySet);
+    keys.refresh();
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+
+  private static String sign(KeyPair keyPair, String keyId, long validSeconds) throws Exception {
+    long now = Instant.now().getEpochSecond();
+    JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId(keyId);
+    JsonWebToken.Payload payload = new JsonWebToken.Payload().setIssuer(ISSUER)
+                                                             .setAudience(CLIENT_ID)
+                                                             .setSubject("user-1")
+                                                             .setIssuedAtTimeSeconds(now)
+                                                             .setExpirationTimeSeconds(now + validSeconds);
+    return JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), GsonFactory.getDefaultInstance(), header,
+                                               payload);
+  }
+
+  private static KeyPair generate() {
+    try {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(2048);
+      return generator.generateKeyPair();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
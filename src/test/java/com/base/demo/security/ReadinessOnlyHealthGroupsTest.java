@@ -0,0 +1,29 @@
+package com.base.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+
+class ReadinessOnlyHealthGroupsTest {
+
+  @Test
+  void signingKeysOnlyCountsForReadiness() {
+    HealthEndpointGroup all = mock(HealthEndpointGroup.class);
+    when(all.isMember(anyString())).thenReturn(true);
+    HealthEndpointGroup readiness = mock(HealthEndpointGroup.class);
+    when(readiness.isMember("signingKeys")).thenReturn(true);
+
+    HealthEndpointGroups groups = new ReadinessOnlyHealthGroups()
+        .postProcessHealthEndpointGroups(HealthEndpointGroups.of(all, Map.of("readiness", readiness)));
+
+    assertThat(groups.getPrimary().isMember("signingKeys")).isFalse();
+    assertThat(groups.getPrimary().isMember("diskSpace")).isTrue();
+    assertThat(groups.get("readiness").isMember("signingKeys")).isTrue();
+  }
+}